@@ -2,11 +2,16 @@ package io.github.cfrancia.promises;
 
 import io.github.cfrancia.promises.exception.FailedPromiseException;
 import io.github.cfrancia.promises.exception.UnfulfilledPromiseException;
+import io.github.cfrancia.promises.util.EventLoopGroup;
 import io.github.cfrancia.promises.util.Eventual;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -17,24 +22,37 @@ import java.util.function.Supplier;
  */
 abstract class AbstractPromise<T> implements Promise<T> {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<AbstractPromise> NEXT_STEP_NOTIFIED =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractPromise.class, "nextStepNotified");
+
     final Executor promiseExecutor;
 
     Eventual<T> eventualValue = new Eventual<>();
-    Exception caughtException = null;
+    volatile Exception caughtException = null;
 
-    private PromiseStep<T> nextStep = null;
+    private volatile PromiseStep<T> nextStep = null;
+    private volatile int nextStepNotified = 0;
 
     AbstractPromise(Executor promiseExecutor) {
-        this.promiseExecutor = promiseExecutor;
+        this.promiseExecutor = promiseExecutor instanceof EventLoopGroup
+                ? ((EventLoopGroup) promiseExecutor).next()
+                : promiseExecutor;
+
+        if (PromiseRegistry.ENABLED) {
+            PromiseRegistry.registerGlobally(this);
+        }
     }
 
     @Override
     public T resolve(int timeout, TimeUnit timeUnit) {
         assertNoCaughtException();
+        assertNotBlockingOwnEventLoop();
 
         try {
             T resolvedValue = eventualValue.view(timeout, timeUnit);
             if (resolvedValue == null) {
+                assertNoCaughtException();
                 throw new UnfulfilledPromiseException();
             }
 
@@ -90,29 +108,81 @@ abstract class AbstractPromise<T> implements Promise<T> {
         return joiningPromise;
     }
 
+    boolean isPending() {
+        return !eventualValue.isSettled();
+    }
+
+    /**
+     * Called before the promise is waited on without going through {@link #resolve(int, TimeUnit)}, for promises
+     * which defer their work until observed.
+     */
+    void start() {
+    }
+
+    static <T> List<T> resolveAll(Collection<? extends Promise<T>> promises, int timeout, TimeUnit timeUnit) {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+
+        List<Eventual<?>> eventuals = new ArrayList<>(promises.size());
+        for (Promise<T> promise : promises) {
+            if (promise instanceof AbstractPromise) {
+                AbstractPromise<T> abstractPromise = (AbstractPromise<T>) promise;
+                abstractPromise.assertNotBlockingOwnEventLoop();
+                abstractPromise.start();
+                eventuals.add(abstractPromise.eventualValue);
+            }
+        }
+
+        try {
+            Eventual.awaitAll(eventuals, timeout, timeUnit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnfulfilledPromiseException(e);
+        }
+
+        // every promise we could wait on has now settled or run out of time, so these only wait on any others
+        List<T> resolvedValues = new ArrayList<>(promises.size());
+        for (Promise<T> promise : promises) {
+            // an int of nanoseconds only spans about two seconds, so the remaining time is passed on in milliseconds
+            long remainingNanos = Math.max(0, deadline - System.nanoTime());
+            long remainingMillis = remainingNanos / 1_000_000 + (remainingNanos % 1_000_000 != 0 ? 1 : 0);
+            resolvedValues.add(promise.resolve((int) Math.min(remainingMillis, Integer.MAX_VALUE), TimeUnit.MILLISECONDS));
+        }
+
+        return resolvedValues;
+    }
+
     Runnable buildFulfillmentRunnable(Supplier<T> valueSupplier) {
+        return () -> runFused(buildFulfillmentStage(valueSupplier));
+    }
+
+    FusedStage buildFulfillmentStage(Supplier<T> valueSupplier) {
         return () -> {
             try {
-                T suppliedValue = valueSupplier.get();
-
-                eventualValue.place(suppliedValue);
-                notifyNextStepIfPresentOfSuccess(suppliedValue);
+                return completeWithValue(valueSupplier.get());
             } catch (Exception e) {
-                caughtException = e;
-                notifyNextStepIfPresentOfFailure(e);
+                return completeWithFailure(e);
             }
         };
     }
 
-    void notifyNextStepIfPresentOfSuccess(T suppliedValue) {
-        if (nextStep != null) {
-            nextStep.accept(suppliedValue);
-        }
+    FusedStage completeWithValue(T suppliedValue) {
+        eventualValue.place(suppliedValue);
+        return claimNextStepNotification() ? nextStep.acceptFused(suppliedValue) : null;
     }
 
-    void notifyNextStepIfPresentOfFailure(Exception thrownException) {
-        if (nextStep != null) {
-            nextStep.failed(thrownException);
+    FusedStage completeWithFailure(Exception thrownException) {
+        caughtException = thrownException;
+        eventualValue.abandon();
+        return claimNextStepNotification() ? nextStep.failedFused(thrownException) : null;
+    }
+
+    /**
+     * Runs the given stage and every stage fused onto it in turn on the calling thread. Steps hand back their
+     * follow-on work rather than invoking it so that long chains do not grow the stack.
+     */
+    static void runFused(FusedStage stage) {
+        while (stage != null) {
+            stage = stage.run();
         }
     }
 
@@ -125,23 +195,38 @@ abstract class AbstractPromise<T> implements Promise<T> {
 
     private void notifyForEarlySuccess() {
         T currentResolvedValue = eventualValue.view();
-        if (currentResolvedValue != null) {
+        if (currentResolvedValue != null && claimNextStepNotification()) {
             nextStep.accept(currentResolvedValue);
         }
     }
 
     private void notifyForEarlyFailure() {
-        if (caughtException != null) {
-            nextStep.failed(caughtException);
+        Exception currentException = caughtException;
+        if (currentException != null && claimNextStepNotification()) {
+            nextStep.failed(currentException);
         }
     }
 
+    /**
+     * A promise can complete on one thread while a step is being chained onto it on another, in which case both
+     * threads may see the step and the result at once; only the thread which claims the notification passes it on.
+     */
+    private boolean claimNextStepNotification() {
+        return nextStep != null && NEXT_STEP_NOTIFIED.compareAndSet(this, 0, 1);
+    }
+
     private void assertNoCurrentNextStep() {
         if (nextStep != null) {
             throw new IllegalStateException("Promise already has already been chained");
         }
     }
 
+    private void assertNotBlockingOwnEventLoop() {
+        if (isPending() && EventLoopGroup.isCurrentLoop(promiseExecutor)) {
+            throw new IllegalStateException("Cannot block on a promise from the event loop it runs on");
+        }
+    }
+
     private void assertNoCaughtException() {
         if (caughtException != null) {
             throw new FailedPromiseException(caughtException);
@@ -0,0 +1,156 @@
+package io.github.cfrancia.promises;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Coalesces individual loads into calls to a bulk loader. Keys requested through {@link #load(Object)} are gathered
+ * until either the batch window since the first of them has elapsed or the maximum batch size has been reached, and
+ * are then passed to the bulk loader in a single call on the loader's executor.
+ * <p>
+ * Each returned promise is fulfilled individually from the bulk loader's result. A key which is absent from that
+ * result fails only its own promises, with a {@link NoSuchElementException}; only an exception thrown by the bulk
+ * loader itself fails the whole batch. A key requested several times within one batch is loaded once. A batch which
+ * the loader's executor refuses fails every promise in it with the executor's exception.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<List<K>, Map<K, V>> bulkLoader;
+    private final int maxBatchSize;
+    private final long batchWindowNanos;
+    private final Executor promiseExecutor;
+
+    private final Lock batchLock = new ReentrantLock();
+    private Map<K, List<DeferredPromise<V>>> pendingBatch = new LinkedHashMap<>();
+    private ScheduledFuture<?> pendingDispatch = null;
+
+    private BatchLoader(Function<List<K>, Map<K, V>> bulkLoader, int maxBatchSize, Duration batchWindow,
+                        Executor promiseExecutor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Maximum batch size must be at least one");
+        }
+
+        this.bulkLoader = requireNonNull(bulkLoader);
+        this.maxBatchSize = maxBatchSize;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.promiseExecutor = requireNonNull(promiseExecutor);
+    }
+
+    public static <K, V> BatchLoader<K, V> batchLoader(Function<List<K>, Map<K, V>> bulkLoader, int maxBatchSize,
+                                                       Duration batchWindow, Executor promiseExecutor) {
+        return new BatchLoader<>(bulkLoader, maxBatchSize, batchWindow, promiseExecutor);
+    }
+
+    public static <K, V> BatchLoader<K, V> batchLoader(Function<List<K>, Map<K, V>> bulkLoader, int maxBatchSize,
+                                                       Duration batchWindow) {
+        return batchLoader(bulkLoader, maxBatchSize, batchWindow, Promise.DEFAULT_EXECUTOR);
+    }
+
+    public Promise<V> load(K key) {
+        requireNonNull(key);
+
+        DeferredPromise<V> promise = new DeferredPromise<>(promiseExecutor);
+        Map<K, List<DeferredPromise<V>>> fullBatch = null;
+
+        batchLock.lock();
+        try {
+            pendingBatch.computeIfAbsent(key, (ignored) -> new ArrayList<>(1)).add(promise);
+
+            if (pendingBatch.size() >= maxBatchSize) {
+                fullBatch = takePendingBatch();
+            } else if (pendingDispatch == null) {
+                pendingDispatch = PromiseTimer.schedule(this::dispatchPendingBatch, batchWindowNanos, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            batchLock.unlock();
+        }
+
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+
+        return promise;
+    }
+
+    private void dispatchPendingBatch() {
+        Map<K, List<DeferredPromise<V>>> batch;
+
+        batchLock.lock();
+        try {
+            batch = takePendingBatch();
+        } finally {
+            batchLock.unlock();
+        }
+
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private Map<K, List<DeferredPromise<V>>> takePendingBatch() {
+        Map<K, List<DeferredPromise<V>>> batch = pendingBatch;
+        pendingBatch = new LinkedHashMap<>();
+
+        if (pendingDispatch != null) {
+            pendingDispatch.cancel(false);
+            pendingDispatch = null;
+        }
+
+        return batch;
+    }
+
+    private void dispatch(Map<K, List<DeferredPromise<V>>> batch) {
+        try {
+            promiseExecutor.execute(() -> loadBatch(batch));
+        } catch (RuntimeException e) {
+            batch.values().forEach((promises) -> promises.forEach((promise) -> promise.fail(e)));
+        }
+    }
+
+    private void loadBatch(Map<K, List<DeferredPromise<V>>> batch) {
+        Map<K, V> loadedValues;
+        try {
+            loadedValues = requireNonNull(bulkLoader.apply(new ArrayList<>(batch.keySet())));
+        } catch (Exception e) {
+            batch.values().forEach((promises) -> promises.forEach((promise) -> handOff(promise, () -> promise.fail(e))));
+            return;
+        }
+
+        batch.forEach((key, promises) -> {
+            V loadedValue = loadedValues.get(key);
+
+            if (loadedValue != null) {
+                promises.forEach((promise) -> handOff(promise, () -> promise.complete(loadedValue)));
+            } else {
+                NoSuchElementException missingException = new NoSuchElementException("No value was loaded for key " + key);
+                promises.forEach((promise) -> handOff(promise, () -> promise.fail(missingException)));
+            }
+        });
+    }
+
+    /**
+     * Settles each promise in a task of its own on the promise's executor, so that steps chained onto it run where
+     * they would have had it been fulfilled by a supplier, and a step which throws cannot keep the rest of the batch
+     * from being settled.
+     */
+    private static void handOff(DeferredPromise<?> promise, Runnable outcome) {
+        try {
+            promise.promiseExecutor.execute(outcome);
+        } catch (RuntimeException e) {
+            promise.fail(e);
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+package io.github.cfrancia.promises;
+
+import io.github.cfrancia.promises.util.BufferPool;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Promises for asynchronous channel operations. The operations are started directly on the channel, so no executor
+ * thread waits on the I/O; once the channel's completion handler fires, the promise is fulfilled on the given
+ * executor so that chained steps never run on the channel group's threads.
+ * <p>
+ * Reads are made into a buffer acquired from the given pool and are fulfilled with that buffer flipped ready for
+ * reading, empty at end of stream. The caller owns the buffer from then on and should hand it back to the pool once
+ * done with it. Writes are fulfilled with the total number of bytes written, once the source buffer has been drained.
+ */
+public final class ChannelPromises {
+
+    private ChannelPromises() {
+    }
+
+    public static Promise<ByteBuffer> read(AsynchronousFileChannel channel, long position, BufferPool bufferPool,
+                                           Executor promiseExecutor) {
+        DeferredPromise<ByteBuffer> promise = new DeferredPromise<>(promiseExecutor);
+        ByteBuffer buffer = bufferPool.acquire();
+
+        try {
+            channel.read(buffer, position, null, new ReadHandler(promise, buffer, bufferPool));
+        } catch (RuntimeException e) {
+            bufferPool.release(buffer);
+            throw e;
+        }
+        return promise;
+    }
+
+    public static Promise<ByteBuffer> read(AsynchronousFileChannel channel, long position, BufferPool bufferPool) {
+        return read(channel, position, bufferPool, Promise.DEFAULT_EXECUTOR);
+    }
+
+    public static Promise<ByteBuffer> read(AsynchronousSocketChannel channel, BufferPool bufferPool,
+                                           Executor promiseExecutor) {
+        DeferredPromise<ByteBuffer> promise = new DeferredPromise<>(promiseExecutor);
+        ByteBuffer buffer = bufferPool.acquire();
+
+        try {
+            channel.read(buffer, null, new ReadHandler(promise, buffer, bufferPool));
+        } catch (RuntimeException e) {
+            bufferPool.release(buffer);
+            throw e;
+        }
+        return promise;
+    }
+
+    public static Promise<ByteBuffer> read(AsynchronousSocketChannel channel, BufferPool bufferPool) {
+        return read(channel, bufferPool, Promise.DEFAULT_EXECUTOR);
+    }
+
+    public static Promise<Integer> write(AsynchronousFileChannel channel, ByteBuffer source, long position,
+                                         Executor promiseExecutor) {
+        DeferredPromise<Integer> promise = new DeferredPromise<>(promiseExecutor);
+
+        channel.write(source, position, null, new WriteHandler(promise, source) {
+            @Override
+            void writeRemaining(int bytesWrittenSoFar) {
+                channel.write(source, position + bytesWrittenSoFar, null, this);
+            }
+        });
+        return promise;
+    }
+
+    public static Promise<Integer> write(AsynchronousFileChannel channel, ByteBuffer source, long position) {
+        return write(channel, source, position, Promise.DEFAULT_EXECUTOR);
+    }
+
+    public static Promise<Integer> write(AsynchronousSocketChannel channel, ByteBuffer source, Executor promiseExecutor) {
+        DeferredPromise<Integer> promise = new DeferredPromise<>(promiseExecutor);
+
+        channel.write(source, null, new WriteHandler(promise, source) {
+            @Override
+            void writeRemaining(int bytesWrittenSoFar) {
+                channel.write(source, null, this);
+            }
+        });
+        return promise;
+    }
+
+    public static Promise<Integer> write(AsynchronousSocketChannel channel, ByteBuffer source) {
+        return write(channel, source, Promise.DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Hands the outcome over to the promise's executor. Should the executor refuse it, for example because it has
+     * been shut down, the promise is failed on the calling thread instead, once any clean up has been run, so that it
+     * is never left pending.
+     */
+    private static void handOff(DeferredPromise<?> promise, Runnable outcome) {
+        handOff(promise, outcome, () -> {
+        });
+    }
+
+    private static void handOff(DeferredPromise<?> promise, Runnable outcome, Runnable onRejected) {
+        try {
+            promise.promiseExecutor.execute(outcome);
+        } catch (RuntimeException e) {
+            onRejected.run();
+            promise.fail(e);
+        }
+    }
+
+    private static void failOnExecutor(DeferredPromise<?> promise, Throwable thrown) {
+        Exception thrownException = thrown instanceof Exception ? (Exception) thrown : new ExecutionException(thrown);
+
+        try {
+            promise.promiseExecutor.execute(() -> promise.fail(thrownException));
+        } catch (RuntimeException e) {
+            promise.fail(thrownException);
+        }
+    }
+
+    private static class ReadHandler implements CompletionHandler<Integer, Void> {
+
+        private final DeferredPromise<ByteBuffer> promise;
+        private final ByteBuffer buffer;
+        private final BufferPool bufferPool;
+
+        private ReadHandler(DeferredPromise<ByteBuffer> promise, ByteBuffer buffer, BufferPool bufferPool) {
+            this.promise = promise;
+            this.buffer = buffer;
+            this.bufferPool = bufferPool;
+        }
+
+        @Override
+        public void completed(Integer bytesRead, Void attachment) {
+            buffer.flip();
+            handOff(promise, () -> promise.complete(buffer), () -> bufferPool.release(buffer));
+        }
+
+        @Override
+        public void failed(Throwable thrown, Void attachment) {
+            bufferPool.release(buffer);
+            failOnExecutor(promise, thrown);
+        }
+    }
+
+    private abstract static class WriteHandler implements CompletionHandler<Integer, Void> {
+
+        private final DeferredPromise<Integer> promise;
+        private final ByteBuffer source;
+        private int bytesWritten = 0;
+
+        private WriteHandler(DeferredPromise<Integer> promise, ByteBuffer source) {
+            this.promise = promise;
+            this.source = source;
+        }
+
+        abstract void writeRemaining(int bytesWrittenSoFar);
+
+        @Override
+        public void completed(Integer bytesWrittenByCall, Void attachment) {
+            bytesWritten += bytesWrittenByCall;
+
+            if (!source.hasRemaining()) {
+                int totalBytesWritten = bytesWritten;
+                handOff(promise, () -> promise.complete(totalBytesWritten));
+                return;
+            }
+
+            try {
+                writeRemaining(bytesWritten);
+            } catch (RuntimeException e) {
+                failOnExecutor(promise, e);
+            }
+        }
+
+        @Override
+        public void failed(Throwable thrown, Void attachment) {
+            failOnExecutor(promise, thrown);
+        }
+    }
+
+}
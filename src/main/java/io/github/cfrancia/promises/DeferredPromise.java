@@ -0,0 +1,49 @@
+package io.github.cfrancia.promises;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A promise which is fulfilled from the outside rather than by a supplier of its own. Only the first call to either
+ * {@link #complete(Object)} or {@link #fail(Exception)} has any effect; later calls are ignored and return false.
+ */
+class DeferredPromise<T> extends AbstractPromise<T> {
+
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    DeferredPromise(Executor promiseExecutor) {
+        super(promiseExecutor);
+    }
+
+    boolean complete(T value) {
+        if (!claimCompletion()) {
+            return false;
+        }
+
+        runFused(completeWithValue(value));
+        return true;
+    }
+
+    boolean fail(Exception thrownException) {
+        if (!claimCompletion()) {
+            return false;
+        }
+
+        runFused(completeWithFailure(thrownException));
+        return true;
+    }
+
+    /**
+     * Claims the right to fulfill this promise without yet doing so, for subclasses which need to act on having won
+     * before the value becomes visible. The caller must follow a successful claim with exactly one of
+     * {@link #completeWithValue(Object)} or {@link #completeWithFailure(Exception)}.
+     */
+    boolean claimCompletion() {
+        return completed.compareAndSet(false, true);
+    }
+
+    boolean isCompleted() {
+        return completed.get();
+    }
+
+}
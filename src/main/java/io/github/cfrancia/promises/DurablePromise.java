@@ -0,0 +1,47 @@
+package io.github.cfrancia.promises;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * A promise whose value is recorded in a journal under an id once its supplier succeeds. If the journal already holds
+ * a value for the id, for example one recorded before a restart, the promise is fulfilled from it straight away and
+ * the supplier is never run. A recorded value which can no longer be decoded is ignored and the supplier run instead.
+ * A supplied value which cannot be recorded still fulfills the promise, and the failure is reported to the journal.
+ */
+class DurablePromise<T> extends AbstractPromise<T> {
+
+    DurablePromise(String id, Supplier<T> promiseSupplier, PromiseCodec<T> codec, PromiseJournal journal,
+                   Executor promiseExecutor) {
+        super(promiseExecutor);
+
+        T recordedValue = decodeRecordedValue(journal.lookup(id), codec);
+        if (recordedValue != null) {
+            runFused(completeWithValue(recordedValue));
+            return;
+        }
+
+        this.promiseExecutor.execute(buildFulfillmentRunnable(() -> {
+            T suppliedValue = promiseSupplier.get();
+            try {
+                journal.append(id, codec.encode(suppliedValue));
+            } catch (RuntimeException e) {
+                journal.appendFailed(id, e);
+            }
+            return suppliedValue;
+        }));
+    }
+
+    private static <T> T decodeRecordedValue(byte[] encodedValue, PromiseCodec<T> codec) {
+        if (encodedValue == null) {
+            return null;
+        }
+
+        try {
+            return codec.decode(encodedValue);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+}
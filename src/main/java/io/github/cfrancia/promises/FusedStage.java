@@ -0,0 +1,12 @@
+package io.github.cfrancia.promises;
+
+/**
+ * A unit of work in a chain of promises which, once run, hands back the work of the step that follows it so that
+ * consecutive stages can be run within a single executor task rather than each being submitted separately.
+ */
+@FunctionalInterface
+interface FusedStage {
+
+    FusedStage run();
+
+}
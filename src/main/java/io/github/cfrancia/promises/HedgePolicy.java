@@ -0,0 +1,120 @@
+package io.github.cfrancia.promises;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when a hedged promise should start a backup execution of its supplier, and counts how often backups were
+ * started and how often one of them produced the winning value.
+ * <p>
+ * A policy is intended to be shared by every hedged call to the same backend so that an adaptive policy can learn
+ * that backend's latency distribution.
+ */
+public final class HedgePolicy {
+
+    private static final int LATENCY_SAMPLE_CAPACITY = 1024;
+    private static final int MINIMUM_LATENCY_SAMPLES = 64;
+    private static final int RECALCULATION_INTERVAL = 64;
+
+    private final long initialHedgeDelayNanos;
+    private final int maxAttempts;
+    private final double latencyPercentile;
+
+    private final AtomicLongArray latencySamples;
+    private final AtomicLong recordedLatencies = new AtomicLong();
+    private volatile long adaptiveHedgeDelayNanos;
+
+    private final LongAdder hedgesFired = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    private HedgePolicy(Duration initialHedgeDelay, int maxAttempts, double latencyPercentile) {
+        if (initialHedgeDelay.isNegative()) {
+            throw new IllegalArgumentException("Hedge delay must not be negative");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("A hedged promise must be allowed at least one attempt");
+        }
+
+        this.initialHedgeDelayNanos = initialHedgeDelay.toNanos();
+        this.maxAttempts = maxAttempts;
+        this.latencyPercentile = latencyPercentile;
+        this.latencySamples = isAdaptive() ? new AtomicLongArray(LATENCY_SAMPLE_CAPACITY) : null;
+        this.adaptiveHedgeDelayNanos = initialHedgeDelayNanos;
+    }
+
+    /**
+     * A policy which always starts a backup once an attempt has been running for the given delay.
+     */
+    public static HedgePolicy fixed(Duration hedgeDelay, int maxAttempts) {
+        return new HedgePolicy(hedgeDelay, maxAttempts, Double.NaN);
+    }
+
+    /**
+     * A policy which starts a backup once an attempt has been running for longer than the given percentile (e.g.
+     * {@code 95.0}) of recently observed latencies, falling back to the initial delay until enough have been seen.
+     */
+    public static HedgePolicy adaptive(double latencyPercentile, Duration initialHedgeDelay, int maxAttempts) {
+        if (!(latencyPercentile > 0 && latencyPercentile < 100)) {
+            throw new IllegalArgumentException("Latency percentile must be between 0 and 100 exclusive");
+        }
+
+        return new HedgePolicy(initialHedgeDelay, maxAttempts, latencyPercentile);
+    }
+
+    public long getHedgesFired() {
+        return hedgesFired.sum();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    long getHedgeDelayNanos() {
+        return adaptiveHedgeDelayNanos;
+    }
+
+    void recordHedgeFired() {
+        hedgesFired.increment();
+    }
+
+    void recordHedgeWon() {
+        hedgesWon.increment();
+    }
+
+    void recordLatency(long latencyNanos) {
+        if (!isAdaptive()) {
+            return;
+        }
+
+        long sampleNumber = recordedLatencies.getAndIncrement();
+        latencySamples.set((int) (sampleNumber % LATENCY_SAMPLE_CAPACITY), latencyNanos);
+
+        long sampleCount = sampleNumber + 1;
+        if (sampleCount >= MINIMUM_LATENCY_SAMPLES && sampleCount % RECALCULATION_INTERVAL == 0) {
+            adaptiveHedgeDelayNanos = calculatePercentile((int) Math.min(sampleCount, LATENCY_SAMPLE_CAPACITY));
+        }
+    }
+
+    private long calculatePercentile(int sampleCount) {
+        long[] sortedSamples = new long[sampleCount];
+        for (int i = 0; i < sampleCount; i++) {
+            sortedSamples[i] = latencySamples.get(i);
+        }
+        Arrays.sort(sortedSamples);
+
+        int percentileIndex = (int) Math.ceil(latencyPercentile / 100 * sampleCount) - 1;
+        return sortedSamples[Math.max(0, percentileIndex)];
+    }
+
+    private boolean isAdaptive() {
+        return !Double.isNaN(latencyPercentile);
+    }
+
+}
@@ -0,0 +1,126 @@
+package io.github.cfrancia.promises;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A promise which runs its supplier again, up to the policy's attempt limit, whenever the latest attempt has not
+ * completed within the policy's hedge delay. The first attempt to succeed fulfills the promise and the remaining
+ * attempts are cancelled: pending hedges are never started and queued attempts are skipped, while attempts already
+ * running are left to finish with their values discarded.
+ * <p>
+ * Failed attempts are not retried. An attempt which supplies null or which the executor refuses counts as failed. The
+ * promise fails as soon as every attempt started so far has failed, as there is then nothing left running for a hedge
+ * to race against.
+ */
+class HedgedPromise<T> extends DeferredPromise<T> {
+
+    private final Supplier<T> promiseSupplier;
+    private final HedgePolicy hedgePolicy;
+
+    private final Lock hedgeLock = new ReentrantLock();
+    private int attemptsStarted = 0;
+    private int attemptsFailed = 0;
+    private ScheduledFuture<?> pendingHedge = null;
+
+    HedgedPromise(Supplier<T> promiseSupplier, HedgePolicy hedgePolicy, Executor promiseExecutor) {
+        super(promiseExecutor);
+        this.promiseSupplier = promiseSupplier;
+        this.hedgePolicy = hedgePolicy;
+
+        startAttempt();
+    }
+
+    private void startAttempt() {
+        boolean isHedge;
+
+        hedgeLock.lock();
+        try {
+            if (isCompleted() || attemptsStarted >= hedgePolicy.getMaxAttempts()) {
+                return;
+            }
+
+            isHedge = attemptsStarted > 0;
+            attemptsStarted++;
+
+            if (attemptsStarted < hedgePolicy.getMaxAttempts()) {
+                pendingHedge = PromiseTimer.schedule(this::startAttempt, hedgePolicy.getHedgeDelayNanos(),
+                        TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            hedgeLock.unlock();
+        }
+
+        if (isHedge) {
+            hedgePolicy.recordHedgeFired();
+        }
+
+        try {
+            promiseExecutor.execute(() -> runAttempt(isHedge));
+        } catch (RuntimeException e) {
+            // a refused attempt will never finish, so it must not go on counting as one still running
+            attemptFailed(e);
+        }
+    }
+
+    private void runAttempt(boolean isHedge) {
+        if (isCompleted()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        T suppliedValue;
+        try {
+            suppliedValue = requireNonNull(promiseSupplier.get(), "Hedged supplier returned null");
+        } catch (Exception e) {
+            attemptFailed(e);
+            return;
+        }
+
+        hedgePolicy.recordLatency(System.nanoTime() - startTime);
+
+        if (claimCompletion()) {
+            cancelPendingHedge();
+
+            if (isHedge) {
+                hedgePolicy.recordHedgeWon();
+            }
+
+            runFused(buildFulfillmentStage(() -> suppliedValue));
+        }
+    }
+
+    private void attemptFailed(Exception thrownException) {
+        hedgeLock.lock();
+        try {
+            attemptsFailed++;
+            if (attemptsFailed < attemptsStarted || !claimCompletion()) {
+                return;
+            }
+
+            cancelPendingHedge();
+        } finally {
+            hedgeLock.unlock();
+        }
+
+        runFused(completeWithFailure(thrownException));
+    }
+
+    private void cancelPendingHedge() {
+        hedgeLock.lock();
+        try {
+            if (pendingHedge != null) {
+                pendingHedge.cancel(false);
+            }
+        } finally {
+            hedgeLock.unlock();
+        }
+    }
+
+}
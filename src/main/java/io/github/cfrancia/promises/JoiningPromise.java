@@ -36,8 +36,7 @@ class JoiningPromise<T, R> extends AbstractPromise<R> implements PromiseStep<T>
 
     @Override
     public void failed(Exception thrownException) {
-        caughtException = thrownException;
-        notifyNextStepIfPresentOfFailure(thrownException);
+        runFused(completeWithFailure(thrownException));
     }
 
     Promise<R> associate(Promise<T> firstPromise, Promise<T> secondPromise) {
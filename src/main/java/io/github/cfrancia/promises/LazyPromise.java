@@ -0,0 +1,75 @@
+package io.github.cfrancia.promises;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A promise which does not submit its supplier until it is first observed, either by being resolved or by having a
+ * step chained onto it. Concurrent first observers race on a single compare-and-set so that the supplier is submitted
+ * exactly once; once started, observing the promise costs a single volatile read.
+ */
+class LazyPromise<T> extends AbstractPromise<T> {
+
+    private final Supplier<T> promiseSupplier;
+    private final AtomicBoolean started = new AtomicBoolean(false);
+
+    LazyPromise(Supplier<T> promiseSupplier, Executor promiseExecutor) {
+        super(promiseExecutor);
+        this.promiseSupplier = promiseSupplier;
+    }
+
+    @Override
+    public T resolve(int timeout, TimeUnit timeUnit) {
+        start();
+        return super.resolve(timeout, timeUnit);
+    }
+
+    @Override
+    public Optional<T> maybeResolve() {
+        start();
+        return super.maybeResolve();
+    }
+
+    // steps are chained before starting so that the supplier and its first step can be fused into a single task
+
+    @Override
+    public void consume(Consumer<PromiseResult<T>> promiseConsumer) {
+        super.consume(promiseConsumer);
+        start();
+    }
+
+    @Override
+    public <R> Promise<R> then(Function<T, R> mutatorFunction) {
+        Promise<R> mutatingPromise = super.then(mutatorFunction);
+        start();
+        return mutatingPromise;
+    }
+
+    @Override
+    public Promise<T> or(Function<Exception, T> alternateSupplier) {
+        Promise<T> shortcircuitingPromise = super.or(alternateSupplier);
+        start();
+        return shortcircuitingPromise;
+    }
+
+    @Override
+    public <R> Promise<R> combine(Supplier<T> additionalSupplier, BiFunction<T, T, R> combiner) {
+        Promise<R> joiningPromise = super.combine(additionalSupplier, combiner);
+        start();
+        return joiningPromise;
+    }
+
+    @Override
+    void start() {
+        if (!started.get() && started.compareAndSet(false, true)) {
+            promiseExecutor.execute(buildFulfillmentRunnable(promiseSupplier));
+        }
+    }
+
+}
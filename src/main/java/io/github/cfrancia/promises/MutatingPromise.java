@@ -20,10 +20,19 @@ class MutatingPromise<T, R> extends AbstractPromise<R> implements PromiseStep<T>
         promiseExecutor.execute(buildFulfillmentRunnable(() -> mutatorFunction.apply(stepValue)));
     }
 
+    @Override
+    public FusedStage acceptFused(T stepValue) {
+        return buildFulfillmentStage(() -> mutatorFunction.apply(stepValue));
+    }
+
     @Override
     public void failed(Exception thrownException) {
-        caughtException = thrownException;
-        notifyNextStepIfPresentOfFailure(thrownException);
+        runFused(completeWithFailure(thrownException));
+    }
+
+    @Override
+    public FusedStage failedFused(Exception thrownException) {
+        return () -> completeWithFailure(thrownException);
     }
 
 }
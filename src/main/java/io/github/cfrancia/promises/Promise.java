@@ -1,5 +1,9 @@
 package io.github.cfrancia.promises;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.*;
 import java.util.function.BiFunction;
@@ -25,6 +29,52 @@ public interface Promise<T> {
         return promise(promiseSupplier, DEFAULT_EXECUTOR);
     }
 
+    static <T> Promise<T> lazy(Supplier<T> promiseSupplier, Executor promiseExecutor) {
+        return new LazyPromise<>(promiseSupplier, promiseExecutor);
+    }
+
+    static <T> Promise<T> lazy(Supplier<T> promiseSupplier) {
+        return lazy(promiseSupplier, DEFAULT_EXECUTOR);
+    }
+
+    static <T> Promise<T> durable(String id, Supplier<T> promiseSupplier, PromiseCodec<T> codec, PromiseJournal journal,
+                                  Executor promiseExecutor) {
+        return new DurablePromise<>(id, promiseSupplier, codec, journal, promiseExecutor);
+    }
+
+    static <T> Promise<T> durable(String id, Supplier<T> promiseSupplier, PromiseCodec<T> codec, PromiseJournal journal) {
+        return durable(id, promiseSupplier, codec, journal, DEFAULT_EXECUTOR);
+    }
+
+    static <T> Promise<T> hedged(Supplier<T> promiseSupplier, HedgePolicy hedgePolicy, Executor promiseExecutor) {
+        return new HedgedPromise<>(promiseSupplier, hedgePolicy, promiseExecutor);
+    }
+
+    static <T> Promise<T> hedged(Supplier<T> promiseSupplier, HedgePolicy hedgePolicy) {
+        return hedged(promiseSupplier, hedgePolicy, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Hedges with a fixed delay under a policy of its own, whose counters are therefore not visible; pass a shared
+     * {@link HedgePolicy} instead to read how often hedges fired and won.
+     */
+    static <T> Promise<T> hedged(Supplier<T> promiseSupplier, Duration hedgeDelay, int maxAttempts) {
+        return hedged(promiseSupplier, HedgePolicy.fixed(hedgeDelay, maxAttempts));
+    }
+
+    static <T, R> PromisePipeline<R> pipeline(Iterator<T> source, Function<T, Promise<R>> promiseFunction,
+                                              int maxInFlight) {
+        return new PromisePipeline<>(source, promiseFunction, maxInFlight);
+    }
+
+    /**
+     * Resolves every promise, in order, within a single overall timeout. Waiting is done by one parked thread for all
+     * of the promises rather than by waiting on each in turn.
+     */
+    static <T> List<T> resolveAll(Collection<? extends Promise<T>> promises, int timeout, TimeUnit timeUnit) {
+        return AbstractPromise.resolveAll(promises, timeout, timeUnit);
+    }
+
     T resolve(int timeout, TimeUnit timeUnit);
 
     Optional<T> maybeResolve();
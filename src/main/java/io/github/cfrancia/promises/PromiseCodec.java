@@ -0,0 +1,28 @@
+package io.github.cfrancia.promises;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts the values of durable promises to and from the bytes stored in a {@link PromiseJournal}.
+ */
+public interface PromiseCodec<T> {
+
+    static PromiseCodec<String> utf8() {
+        return new PromiseCodec<String>() {
+            @Override
+            public byte[] encode(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] encodedValue) {
+                return new String(encodedValue, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    byte[] encode(T value);
+
+    T decode(byte[] encodedValue);
+
+}
@@ -0,0 +1,509 @@
+package io.github.cfrancia.promises;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the values of durable promises, keyed by id, kept in a directory of memory-mapped
+ * segment files. Only the last segment is appended to; once a record no longer fits, that segment is flushed to disk
+ * and a new one started. Opening a journal replays its segments in order to rebuild an index from each id to its most
+ * recent record, stopping at the first record of a segment which is incomplete or fails its checksum.
+ * <p>
+ * Appends are visible to a restarted process as soon as they return, as they are written straight into the mapped
+ * files, but are only flushed to disk by the periodic group commit or by {@link #sync()}; a machine failure may lose
+ * records appended since the last flush. Superseded and forgotten records take up space until {@link #compact()} is
+ * called, which blocks appends for its duration.
+ * <p>
+ * A journal must be closed once it is no longer used. Until then the group commit keeps polling it for unflushed
+ * records; the timer only holds the journal weakly, so one which is never closed stops being polled once it has been
+ * garbage collected, but any records appended since its last flush are then left to the operating system to write.
+ * <p>
+ * A durable promise whose value cannot be appended, for example because it is larger than a segment or the journal
+ * has been closed, is still fulfilled with that value. The failure is passed to the journal's append failure handler
+ * along with the id, which by default hands it to the uncaught exception handler of the thread that ran the supplier.
+ */
+public class PromiseJournal implements Closeable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofMillis(10);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int TOMBSTONE_LENGTH = -1;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private final Lock journalLock = new ReentrantLock();
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<String, RecordLocation> index = new ConcurrentHashMap<>();
+    private final BiConsumer<String, RuntimeException> appendFailureHandler;
+    private final ScheduledFuture<?> syncTask;
+
+    private volatile boolean dirty = false;
+    private boolean closed = false;
+
+    private PromiseJournal(Path directory, int segmentSize, Duration syncInterval,
+                           BiConsumer<String, RuntimeException> appendFailureHandler) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.appendFailureHandler = appendFailureHandler;
+
+        Files.createDirectories(directory);
+        recover();
+
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(directory, 0, segmentSize));
+        }
+
+        SyncTask periodicSync = new SyncTask(this);
+        syncTask = PromiseTimer.scheduleAtFixedRate(periodicSync, syncInterval.toNanos(), TimeUnit.NANOSECONDS);
+        periodicSync.scheduledSync = syncTask;
+    }
+
+    public static PromiseJournal open(Path directory, int segmentSize, Duration syncInterval,
+                                      BiConsumer<String, RuntimeException> appendFailureHandler) throws IOException {
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size is too small to hold any records");
+        }
+
+        return new PromiseJournal(directory, segmentSize, syncInterval, appendFailureHandler);
+    }
+
+    public static PromiseJournal open(Path directory, int segmentSize, Duration syncInterval) throws IOException {
+        return open(directory, segmentSize, syncInterval, PromiseJournal::reportToUncaughtExceptionHandler);
+    }
+
+    public static PromiseJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_SYNC_INTERVAL);
+    }
+
+    public boolean contains(String id) {
+        return index.containsKey(id);
+    }
+
+    /**
+     * Records that the value held for the given id should no longer be used, so that the next durable promise with
+     * that id runs its supplier again.
+     */
+    public void forget(String id) {
+        if (contains(id)) {
+            writeRecord(id, null);
+        }
+    }
+
+    /**
+     * Flushes every record appended so far to disk, without waiting for the next group commit.
+     */
+    public void sync() {
+        activeSegment().force();
+    }
+
+    /**
+     * Rewrites the most recent record of every id still held into new segments and deletes all existing segments.
+     * Old segments are deleted oldest first, so a crash part way through leaves a journal which replays to the same
+     * state: any remaining old segments are a suffix of the old history, which the new segments then supersede. If
+     * compaction fails before the new segments replace the old ones, the new segments are deleted again so that they
+     * cannot be replayed over records appended afterwards.
+     */
+    public void compact() throws IOException {
+        journalLock.lock();
+        try {
+            assertOpen();
+
+            List<Segment> oldSegments = new ArrayList<>(segments);
+            long nextSequence = oldSegments.get(oldSegments.size() - 1).sequence + 1;
+
+            List<Segment> compactedSegments = new ArrayList<>();
+            Map<String, RecordLocation> compactedIndex = new HashMap<>();
+            try {
+                Segment targetSegment = Segment.create(directory, nextSequence++, segmentSize);
+                compactedSegments.add(targetSegment);
+
+                for (Map.Entry<String, RecordLocation> entry : index.entrySet()) {
+                    byte[] idBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    byte[] payload = entry.getValue().read();
+                    byte[] record = encodeRecord(idBytes, payload);
+
+                    if (!targetSegment.hasRoomFor(record.length)) {
+                        targetSegment.force();
+                        targetSegment = Segment.create(directory, nextSequence++, segmentSize);
+                        compactedSegments.add(targetSegment);
+                    }
+
+                    int recordOffset = targetSegment.append(record);
+                    compactedIndex.put(entry.getKey(), locate(targetSegment, recordOffset, idBytes.length, payload.length));
+                }
+                targetSegment.force();
+            } catch (IOException | RuntimeException e) {
+                deleteSegments(compactedSegments, e);
+                throw e;
+            }
+
+            segments.clear();
+            segments.addAll(compactedSegments);
+            index.putAll(compactedIndex);
+
+            for (Segment oldSegment : oldSegments) {
+                Files.delete(oldSegment.path);
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        syncTask.cancel(false);
+
+        journalLock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                segments.get(segments.size() - 1).force();
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    byte[] lookup(String id) {
+        RecordLocation location = index.get(id);
+        return location != null ? location.read() : null;
+    }
+
+    void append(String id, byte[] payload) {
+        writeRecord(id, payload);
+    }
+
+    void appendFailed(String id, RuntimeException failure) {
+        appendFailureHandler.accept(id, failure);
+    }
+
+    private void writeRecord(String id, byte[] payload) {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        byte[] record = encodeRecord(idBytes, payload);
+
+        if (record.length > segmentSize) {
+            throw new IllegalArgumentException("Record for [" + id + "] is larger than a journal segment");
+        }
+
+        journalLock.lock();
+        try {
+            assertOpen();
+
+            Segment segment = segments.get(segments.size() - 1);
+            if (!segment.hasRoomFor(record.length)) {
+                segment.force();
+                segment = Segment.create(directory, segment.sequence + 1, segmentSize);
+                segments.add(segment);
+            }
+
+            int recordOffset = segment.append(record);
+            if (payload != null) {
+                index.put(id, locate(segment, recordOffset, idBytes.length, payload.length));
+            } else {
+                index.remove(id);
+            }
+
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void syncIfDirty() {
+        if (dirty) {
+            dirty = false;
+            sync();
+        }
+    }
+
+    private static void deleteSegments(List<Segment> segmentsToDelete, Exception cause) {
+        for (Segment segment : segmentsToDelete) {
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    private static void reportToUncaughtExceptionHandler(String id, RuntimeException failure) {
+        Thread currentThread = Thread.currentThread();
+        currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread,
+                new IllegalStateException("Failed to record the value of [" + id + "] in the journal", failure));
+    }
+
+    private Segment activeSegment() {
+        journalLock.lock();
+        try {
+            return segments.get(segments.size() - 1);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void assertOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal has already been closed");
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> segmentPaths;
+        try (Stream<Path> directoryContents = Files.list(directory)) {
+            segmentPaths = directoryContents
+                    .filter((path) -> parseSequence(path) >= 0)
+                    .sorted((left, right) -> Long.compare(parseSequence(left), parseSequence(right)))
+                    .collect(Collectors.toList());
+        }
+
+        for (Path segmentPath : segmentPaths) {
+            Segment segment = Segment.open(segmentPath, parseSequence(segmentPath));
+            segment.writePosition = replay(segment);
+            segments.add(segment);
+        }
+
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).clearFromWritePosition();
+        }
+    }
+
+    private int replay(Segment segment) {
+        ByteBuffer segmentView = segment.buffer.duplicate();
+        int position = 0;
+
+        while (position + RECORD_HEADER_SIZE <= segmentView.capacity()) {
+            int bodyLength = segmentView.getInt(position);
+            if (bodyLength <= 0 || position + RECORD_HEADER_SIZE + bodyLength > segmentView.capacity()) {
+                break;
+            }
+
+            byte[] body = new byte[bodyLength];
+            segmentView.position(position + RECORD_HEADER_SIZE);
+            segmentView.get(body);
+            if (checksum(body) != segmentView.getInt(position + 4)) {
+                break;
+            }
+
+            ByteBuffer bodyView = ByteBuffer.wrap(body);
+            byte[] idBytes = new byte[bodyView.getInt()];
+            bodyView.get(idBytes);
+            int payloadLength = bodyView.getInt();
+
+            String id = new String(idBytes, StandardCharsets.UTF_8);
+            if (payloadLength != TOMBSTONE_LENGTH) {
+                index.put(id, locate(segment, position, idBytes.length, payloadLength));
+            } else {
+                index.remove(id);
+            }
+
+            position += RECORD_HEADER_SIZE + bodyLength;
+        }
+
+        return position;
+    }
+
+    private static byte[] encodeRecord(byte[] idBytes, byte[] payload) {
+        int payloadLength = payload != null ? payload.length : 0;
+        int bodyLength = 4 + idBytes.length + 4 + payloadLength;
+
+        ByteBuffer body = ByteBuffer.allocate(bodyLength);
+        body.putInt(idBytes.length);
+        body.put(idBytes);
+        body.putInt(payload != null ? payload.length : TOMBSTONE_LENGTH);
+        if (payload != null) {
+            body.put(payload);
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength);
+        record.putInt(bodyLength);
+        record.putInt(checksum(body.array()));
+        record.put(body.array());
+        return record.array();
+    }
+
+    private static RecordLocation locate(Segment segment, int recordOffset, int idLength, int payloadLength) {
+        return new RecordLocation(segment, recordOffset + RECORD_HEADER_SIZE + 4 + idLength + 4, payloadLength);
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static long parseSequence(Path path) {
+        String fileName = path.getFileName().toString();
+        if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static class SyncTask implements Runnable {
+
+        // a strong reference here would keep every journal which is never closed reachable from the timer forever
+        private final WeakReference<PromiseJournal> journalReference;
+        private volatile ScheduledFuture<?> scheduledSync;
+
+        private SyncTask(PromiseJournal journal) {
+            this.journalReference = new WeakReference<>(journal);
+        }
+
+        @Override
+        public void run() {
+            PromiseJournal journal = journalReference.get();
+            if (journal == null) {
+                ScheduledFuture<?> sync = scheduledSync;
+                if (sync != null) {
+                    sync.cancel(false);
+                }
+                return;
+            }
+
+            // flushing can take a while, so it is handed off rather than run on the shared timer thread, but only
+            // when there is something to flush so that an idle journal leaves the default executor idle too
+            if (journal.dirty) {
+                Promise.DEFAULT_EXECUTOR.execute(journal::syncIfDirty);
+            }
+        }
+    }
+
+    private static class Segment {
+
+        private final Path path;
+        private final long sequence;
+        private final MappedByteBuffer buffer;
+        private int writePosition = 0;
+
+        private Segment(Path path, long sequence, MappedByteBuffer buffer) {
+            this.path = path;
+            this.sequence = sequence;
+            this.buffer = buffer;
+        }
+
+        private static Segment create(Path directory, long sequence, int segmentSize) throws IOException {
+            Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+
+            // a new segment must never pick up the stale contents of a file left behind under the same name
+            try {
+                return new Segment(path, sequence, map(path, segmentSize, StandardOpenOption.CREATE_NEW));
+            } catch (IOException | RuntimeException e) {
+                if (!(e instanceof FileAlreadyExistsException)) {
+                    Files.deleteIfExists(path);
+                }
+                throw e;
+            }
+        }
+
+        private static Segment open(Path path, long sequence) throws IOException {
+            return new Segment(path, sequence, map(path, Files.size(path)));
+        }
+
+        private static MappedByteBuffer map(Path path, long size, OpenOption... additionalOptions) throws IOException {
+            Set<OpenOption> options = new HashSet<>(Arrays.asList(additionalOptions));
+            options.add(StandardOpenOption.READ);
+            options.add(StandardOpenOption.WRITE);
+
+            // the mapping stays valid once the channel is closed, so no file handle is held per segment
+            try (FileChannel channel = FileChannel.open(path, options)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+
+        private boolean hasRoomFor(int recordLength) {
+            return writePosition + recordLength <= buffer.capacity();
+        }
+
+        private int append(byte[] record) {
+            ByteBuffer segmentView = buffer.duplicate();
+            segmentView.position(writePosition);
+            segmentView.put(record);
+
+            int recordOffset = writePosition;
+            writePosition += record.length;
+            return recordOffset;
+        }
+
+        private byte[] read(int offset, int length) {
+            byte[] bytes = new byte[length];
+
+            ByteBuffer segmentView = buffer.duplicate();
+            segmentView.position(offset);
+            segmentView.get(bytes);
+            return bytes;
+        }
+
+        private void clearFromWritePosition() {
+            // an incomplete record left by a crash must not be mistaken for part of the records appended after it
+            if (writePosition + RECORD_HEADER_SIZE > buffer.capacity() || buffer.getInt(writePosition) == 0) {
+                return;
+            }
+
+            for (int position = writePosition; position < buffer.capacity(); position++) {
+                buffer.put(position, (byte) 0);
+            }
+        }
+
+        private void force() {
+            buffer.force();
+        }
+    }
+
+    private static class RecordLocation {
+
+        private final Segment segment;
+        private final int payloadOffset;
+        private final int payloadLength;
+
+        private RecordLocation(Segment segment, int payloadOffset, int payloadLength) {
+            this.segment = segment;
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = payloadLength;
+        }
+
+        private byte[] read() {
+            return segment.read(payloadOffset, payloadLength);
+        }
+    }
+
+}
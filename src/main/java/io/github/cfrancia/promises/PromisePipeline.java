@@ -0,0 +1,244 @@
+package io.github.cfrancia.promises;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Maps an asynchronous function over an iterator while keeping at most a fixed number of the resulting promises in
+ * flight, and publishes their values to a single subscriber in input order.
+ * <p>
+ * A slot in the window is only freed once its value has been handed to the subscriber, so a value which completes
+ * ahead of its predecessors waits in the window rather than being buffered without bound, and input is only pulled
+ * from the iterator as slots free up. Values are only handed over as the subscriber requests them, so a slow
+ * subscriber holds back the whole pipeline. The first failed promise, in input order, fails the pipeline.
+ * <p>
+ * The subscriber contract mirrors {@code java.util.concurrent.Flow} so that adapting a pipeline to a reactive
+ * library is a matter of delegation. Neither the iterator nor the mapping function need be thread safe; both are
+ * only ever called under the pipeline's lock, so the mapping function should return promptly with a promise rather
+ * than doing its work up front.
+ */
+public class PromisePipeline<R> {
+
+    public interface Subscriber<R> {
+
+        void onSubscribe(Subscription subscription);
+
+        void onNext(R value);
+
+        void onError(Exception exception);
+
+        void onComplete();
+
+    }
+
+    public interface Subscription {
+
+        void request(long count);
+
+        void cancel();
+
+    }
+
+    private final Iterator<Promise<R>> promises;
+    private final int maxInFlight;
+
+    private final Lock pipelineLock = new ReentrantLock();
+    private final PromiseResult<R>[] window;
+
+    private Subscriber<? super R> subscriber = null;
+    private long issued = 0;
+    private long emitted = 0;
+    private long requested = 0;
+    private boolean sourceExhausted = false;
+    private boolean cancelled = false;
+    private boolean emitting = false;
+    private boolean missed = false;
+    private Exception invalidRequest = null;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    <T> PromisePipeline(Iterator<T> source, Function<T, Promise<R>> promiseFunction, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("A pipeline must allow at least one promise in flight");
+        }
+
+        this.promises = new Iterator<Promise<R>>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public Promise<R> next() {
+                return promiseFunction.apply(source.next());
+            }
+        };
+        this.maxInFlight = maxInFlight;
+        this.window = (PromiseResult<R>[]) new PromiseResult[maxInFlight];
+    }
+
+    public void subscribe(Subscriber<? super R> pipelineSubscriber) {
+        pipelineLock.lock();
+        try {
+            if (subscriber != null) {
+                throw new IllegalStateException("Pipeline already has a subscriber");
+            }
+            subscriber = pipelineSubscriber;
+        } finally {
+            pipelineLock.unlock();
+        }
+
+        pipelineSubscriber.onSubscribe(new PipelineSubscription());
+        drain();
+    }
+
+    private void onResult(long sequence, PromiseResult<R> result) {
+        pipelineLock.lock();
+        try {
+            if (!cancelled) {
+                window[slotOf(sequence)] = result;
+            }
+        } finally {
+            pipelineLock.unlock();
+        }
+
+        drain();
+    }
+
+    /**
+     * Tops up the window and hands ready values to the subscriber. Only one thread drains at a time, with the
+     * subscriber called outside the lock; a thread which finds another already draining leaves it a note to go round
+     * again instead of waiting.
+     */
+    private void drain() {
+        pipelineLock.lock();
+        try {
+            if (emitting) {
+                missed = true;
+                return;
+            }
+            emitting = true;
+        } finally {
+            pipelineLock.unlock();
+        }
+
+        try {
+            for (;;) {
+                List<R> readyValues = new ArrayList<>();
+                Exception failure = null;
+                boolean complete = false;
+
+                pipelineLock.lock();
+                try {
+                    missed = false;
+
+                    if (invalidRequest != null && !cancelled) {
+                        failure = invalidRequest;
+                        cancelled = true;
+                    }
+
+                    fillWindow();
+
+                    while (requested > 0 && !cancelled && window[slotOf(emitted)] != null) {
+                        PromiseResult<R> result = window[slotOf(emitted)];
+                        window[slotOf(emitted)] = null;
+                        emitted++;
+
+                        if (result.isError()) {
+                            failure = result.getException();
+                            cancelled = true;
+                        } else {
+                            readyValues.add(result.getValue());
+                            requested--;
+                        }
+                    }
+
+                    if (!cancelled && sourceExhausted && emitted == issued) {
+                        complete = true;
+                        cancelled = true;
+                    }
+
+                    if (readyValues.isEmpty() && failure == null && !complete && !missed) {
+                        emitting = false;
+                        return;
+                    }
+                } finally {
+                    pipelineLock.unlock();
+                }
+
+                readyValues.forEach(subscriber::onNext);
+                if (failure != null) {
+                    subscriber.onError(failure);
+                } else if (complete) {
+                    subscriber.onComplete();
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            // a drain which dies part way must not leave every later drain believing another thread is emitting
+            pipelineLock.lock();
+            try {
+                emitting = false;
+            } finally {
+                pipelineLock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private void fillWindow() {
+        while (!cancelled && !sourceExhausted && issued - emitted < maxInFlight) {
+            long sequence = issued;
+
+            try {
+                if (!promises.hasNext()) {
+                    sourceExhausted = true;
+                    return;
+                }
+                issued++;
+
+                // a null or already chained promise fails here, and is treated as a failed promise at its position
+                promises.next().consume((result) -> onResult(sequence, result));
+            } catch (RuntimeException e) {
+                issued = sequence + 1;
+                window[slotOf(sequence)] = PromiseResult.error(e);
+            }
+        }
+    }
+
+    private int slotOf(long sequence) {
+        return (int) (sequence % maxInFlight);
+    }
+
+    private class PipelineSubscription implements Subscription {
+
+        @Override
+        public void request(long count) {
+            pipelineLock.lock();
+            try {
+                if (count <= 0) {
+                    invalidRequest = new IllegalArgumentException("Subscribers must request a positive number of values");
+                } else {
+                    requested = requested + count < 0 ? Long.MAX_VALUE : requested + count;
+                }
+            } finally {
+                pipelineLock.unlock();
+            }
+
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            pipelineLock.lock();
+            try {
+                cancelled = true;
+            } finally {
+                pipelineLock.unlock();
+            }
+        }
+    }
+
+}
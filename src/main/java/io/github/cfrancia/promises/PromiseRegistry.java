@@ -0,0 +1,264 @@
+package io.github.cfrancia.promises;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An opt-in registry of promises which have not yet been fulfilled or failed, recording where each was created and
+ * when, for diagnosing stuck or slow promises in a running process.
+ * <p>
+ * The registry is enabled by starting the JVM with {@code -Dio.github.cfrancia.promises.registry=true}, at which
+ * point it is also exposed over JMX as {@value #OBJECT_NAME}. When it is disabled no promise ever touches it.
+ * <p>
+ * Promises are held in fixed size stripes of weakly referenced slots, picked by the registering thread, and are
+ * claimed with a single compare-and-set. Nothing is done when a promise completes; its slot is simply free to be
+ * claimed again from then on, as is the slot of a promise which has been garbage collected. A promise which cannot
+ * find a free slot within a few probes is counted as untracked rather than waited for.
+ */
+public final class PromiseRegistry {
+
+    public static final String ENABLED_PROPERTY = "io.github.cfrancia.promises.registry";
+    public static final String OBJECT_NAME = "io.github.cfrancia.promises:type=PromiseRegistry";
+
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final int SLOTS_PER_STRIPE = 4096;
+    private static final int PROBES_PER_STRIPE = 8;
+
+    private static final Set<String> LIBRARY_CLASS_NAMES = Stream.of(
+            Promise.class, AbstractPromise.class, StandalonePromise.class, LazyPromise.class, MutatingPromise.class,
+            ShortcircuitingPromise.class, JoiningPromise.class, DeferredPromise.class, HedgedPromise.class,
+            DurablePromise.class, BatchLoader.class, ChannelPromises.class, PromiseRegistry.class
+    ).map(Class::getName).collect(Collectors.toSet());
+
+    private static final PromiseRegistry GLOBAL_REGISTRY = ENABLED ? createGlobalRegistry() : null;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final LongAdder untrackedCount = new LongAdder();
+
+    PromiseRegistry(int stripeCount, int slotsPerStripe) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two");
+        }
+
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(slotsPerStripe);
+        }
+        stripeMask = stripeCount - 1;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * A snapshot of the promises pending across the whole process, which is empty if the registry is not enabled.
+     */
+    public static Snapshot snapshot() {
+        return ENABLED ? GLOBAL_REGISTRY.takeSnapshot() : new Snapshot(0, 0, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    static void registerGlobally(AbstractPromise<?> promise) {
+        GLOBAL_REGISTRY.register(promise);
+    }
+
+    void register(AbstractPromise<?> promise) {
+        Registration registration = new Registration(promise, findCreationSite(), System.nanoTime());
+
+        int firstStripe = (int) Thread.currentThread().getId();
+        for (int i = 0; i < stripes.length; i++) {
+            if (stripes[(firstStripe + i) & stripeMask].claimSlot(registration)) {
+                return;
+            }
+        }
+
+        untrackedCount.increment();
+    }
+
+    Snapshot takeSnapshot() {
+        long now = System.nanoTime();
+        long pendingCount = 0;
+        Map<String, Long> pendingCountsBySite = new HashMap<>();
+        Map<String, Long> oldestCreationTimeBySite = new HashMap<>();
+
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < stripe.slots.length(); i++) {
+                Registration registration = stripe.slots.get(i);
+                if (registration == null || !registration.isPending()) {
+                    continue;
+                }
+
+                pendingCount++;
+                pendingCountsBySite.merge(registration.creationSite, 1L, Long::sum);
+                oldestCreationTimeBySite.merge(registration.creationSite, registration.creationTime, Math::min);
+            }
+        }
+
+        Map<String, Long> oldestPendingAgeMillisBySite = new HashMap<>();
+        oldestCreationTimeBySite.forEach((site, creationTime) ->
+                oldestPendingAgeMillisBySite.put(site, TimeUnit.NANOSECONDS.toMillis(now - creationTime)));
+
+        return new Snapshot(pendingCount, untrackedCount.sum(), pendingCountsBySite, oldestPendingAgeMillisBySite);
+    }
+
+    void registerMBean(MBeanServer mBeanServer, ObjectName objectName) throws JMException {
+        mBeanServer.registerMBean(new RegistryMXBean(this), objectName);
+    }
+
+    private static PromiseRegistry createGlobalRegistry() {
+        int stripeCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) * 2;
+        PromiseRegistry registry = new PromiseRegistry(stripeCount, SLOTS_PER_STRIPE);
+
+        try {
+            registry.registerMBean(ManagementFactory.getPlatformMBeanServer(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // the registry is still usable through snapshot() without being exposed over JMX
+        }
+
+        return registry;
+    }
+
+    private static String findCreationSite() {
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            if (!isLibraryFrame(frame.getClassName())) {
+                return frame.toString();
+            }
+        }
+
+        return "<unknown>";
+    }
+
+    private static boolean isLibraryFrame(String className) {
+        int nestedClassSeparator = className.indexOf('$');
+        return LIBRARY_CLASS_NAMES.contains(nestedClassSeparator < 0 ? className : className.substring(0, nestedClassSeparator));
+    }
+
+    public static class Snapshot {
+
+        private final long pendingCount;
+        private final long untrackedCount;
+        private final Map<String, Long> pendingCountsBySite;
+        private final Map<String, Long> oldestPendingAgeMillisBySite;
+
+        private Snapshot(long pendingCount, long untrackedCount, Map<String, Long> pendingCountsBySite,
+                         Map<String, Long> oldestPendingAgeMillisBySite) {
+            this.pendingCount = pendingCount;
+            this.untrackedCount = untrackedCount;
+            this.pendingCountsBySite = Collections.unmodifiableMap(pendingCountsBySite);
+            this.oldestPendingAgeMillisBySite = Collections.unmodifiableMap(oldestPendingAgeMillisBySite);
+        }
+
+        public long getPendingCount() {
+            return pendingCount;
+        }
+
+        /**
+         * The number of promises created since the registry was enabled which could not be tracked because every
+         * slot they probed was in use.
+         */
+        public long getUntrackedCount() {
+            return untrackedCount;
+        }
+
+        public Map<String, Long> getPendingCountsBySite() {
+            return pendingCountsBySite;
+        }
+
+        public Map<String, Long> getOldestPendingAgeMillisBySite() {
+            return oldestPendingAgeMillisBySite;
+        }
+
+        @Override
+        public String toString() {
+            return "PromiseRegistry.Snapshot[pending=" + pendingCount + ", untracked=" + untrackedCount + "]: "
+                    + pendingCountsBySite;
+        }
+    }
+
+    private static class Stripe {
+
+        private final AtomicReferenceArray<Registration> slots;
+        private final AtomicInteger nextProbe = new AtomicInteger();
+
+        private Stripe(int slotCount) {
+            slots = new AtomicReferenceArray<>(slotCount);
+        }
+
+        private boolean claimSlot(Registration registration) {
+            int firstProbe = nextProbe.getAndAdd(PROBES_PER_STRIPE);
+
+            for (int i = 0; i < PROBES_PER_STRIPE; i++) {
+                int slot = Math.floorMod(firstProbe + i, slots.length());
+                Registration current = slots.get(slot);
+
+                if ((current == null || !current.isPending()) && slots.compareAndSet(slot, current, registration)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    private static class Registration extends WeakReference<AbstractPromise<?>> {
+
+        private final String creationSite;
+        private final long creationTime;
+
+        private Registration(AbstractPromise<?> promise, String creationSite, long creationTime) {
+            super(promise);
+            this.creationSite = creationSite;
+            this.creationTime = creationTime;
+        }
+
+        private boolean isPending() {
+            AbstractPromise<?> promise = get();
+            return promise != null && promise.isPending();
+        }
+    }
+
+    private static class RegistryMXBean implements PromiseRegistryMXBean {
+
+        private final PromiseRegistry registry;
+
+        private RegistryMXBean(PromiseRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public long getPendingCount() {
+            return registry.takeSnapshot().getPendingCount();
+        }
+
+        @Override
+        public long getUntrackedCount() {
+            return registry.takeSnapshot().getUntrackedCount();
+        }
+
+        @Override
+        public Map<String, Long> getPendingCountsBySite() {
+            return registry.takeSnapshot().getPendingCountsBySite();
+        }
+
+        @Override
+        public Map<String, Long> getOldestPendingAgeMillisBySite() {
+            return registry.takeSnapshot().getOldestPendingAgeMillisBySite();
+        }
+    }
+
+}
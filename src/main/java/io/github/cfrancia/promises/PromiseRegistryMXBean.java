@@ -0,0 +1,18 @@
+package io.github.cfrancia.promises;
+
+import java.util.Map;
+
+/**
+ * Management interface of the {@link PromiseRegistry}; every attribute is computed from a fresh snapshot.
+ */
+public interface PromiseRegistryMXBean {
+
+    long getPendingCount();
+
+    long getUntrackedCount();
+
+    Map<String, Long> getPendingCountsBySite();
+
+    Map<String, Long> getOldestPendingAgeMillisBySite();
+
+}
@@ -9,4 +9,14 @@ interface PromiseStep<T> {
 
     void failed(Exception thrownException);
 
+    default FusedStage acceptFused(T stepValue) {
+        accept(stepValue);
+        return null;
+    }
+
+    default FusedStage failedFused(Exception thrownException) {
+        failed(thrownException);
+        return null;
+    }
+
 }
@@ -0,0 +1,34 @@
+package io.github.cfrancia.promises;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared timer for promises which need to act after a delay. Scheduled work should only hand off to a promise's own
+ * executor, never run user code, as the single timer thread is shared by every promise.
+ */
+final class PromiseTimer {
+
+    private static final ScheduledThreadPoolExecutor TIMER_EXECUTOR = new ScheduledThreadPoolExecutor(1, (runnable) -> {
+        Thread timerThread = new Thread(runnable, "promise-timer");
+        timerThread.setDaemon(true);
+        return timerThread;
+    });
+
+    static {
+        TIMER_EXECUTOR.setRemoveOnCancelPolicy(true);
+    }
+
+    private PromiseTimer() {
+    }
+
+    static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit timeUnit) {
+        return TIMER_EXECUTOR.schedule(task, delay, timeUnit);
+    }
+
+    static ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period, TimeUnit timeUnit) {
+        return TIMER_EXECUTOR.scheduleAtFixedRate(task, period, period, timeUnit);
+    }
+
+}
@@ -17,8 +17,12 @@ class ShortcircuitingPromise<T> extends AbstractPromise<T> implements PromiseSte
 
     @Override
     public void accept(T stepValue) {
-        eventualValue.place(stepValue);
-        notifyNextStepIfPresentOfSuccess(stepValue);
+        runFused(completeWithValue(stepValue));
+    }
+
+    @Override
+    public FusedStage acceptFused(T stepValue) {
+        return () -> completeWithValue(stepValue);
     }
 
     @Override
@@ -26,4 +30,9 @@ class ShortcircuitingPromise<T> extends AbstractPromise<T> implements PromiseSte
         promiseExecutor.execute(buildFulfillmentRunnable(() -> alternateSupplier.apply(thrownException)));
     }
 
+    @Override
+    public FusedStage failedFused(Exception thrownException) {
+        return buildFulfillmentStage(() -> alternateSupplier.apply(thrownException));
+    }
+
 }
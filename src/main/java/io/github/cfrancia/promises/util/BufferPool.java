@@ -0,0 +1,58 @@
+package io.github.cfrancia.promises.util;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of equally sized direct buffers, so that the cost of allocating off-heap memory is paid once per buffer
+ * rather than once per I/O operation. Buffers are allocated on demand when the pool is empty, and released buffers
+ * beyond the pool's capacity are left for the garbage collector.
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+
+    private final Queue<ByteBuffer> pooledBuffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBufferCount = new AtomicInteger();
+
+    public BufferPool(int bufferSize, int maxPooledBuffers) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least one byte");
+        }
+
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pooledBuffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        pooledBufferCount.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (!buffer.isDirect() || buffer.capacity() != bufferSize) {
+            throw new IllegalArgumentException("Buffer was not acquired from this pool");
+        }
+
+        if (pooledBufferCount.incrementAndGet() > maxPooledBuffers) {
+            pooledBufferCount.decrementAndGet();
+            return;
+        }
+
+        pooledBuffers.offer(buffer);
+    }
+
+}
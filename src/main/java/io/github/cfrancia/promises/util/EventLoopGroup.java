@@ -0,0 +1,171 @@
+package io.github.cfrancia.promises.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An executor made up of single threaded event loops, one per core by default, each draining its own lock-free queue.
+ * <p>
+ * Promises created with a group are bound to one of its loops at creation, preferring the loop of the creating thread
+ * when that is one of the group's own, so that a promise and every stage chained onto it run on the same thread.
+ * A loop only needs waking when it has run out of work and parked; submissions which arrive while it is busy are
+ * picked up by its next drain without any further hand-off between threads.
+ * <p>
+ * As a promise created on a loop stays on that loop, a loop task must not resolve such a promise with a blocking
+ * {@code resolve}; doing so fails with an {@link IllegalStateException} rather than waiting out the timeout. Chain
+ * onto the promise instead.
+ */
+public class EventLoopGroup implements Executor {
+
+    private final EventLoop[] eventLoops;
+    private final AtomicInteger nextLoopIndex = new AtomicInteger();
+
+    public EventLoopGroup() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public EventLoopGroup(int loopCount) {
+        if (loopCount < 1) {
+            throw new IllegalArgumentException("An event loop group needs at least one loop");
+        }
+
+        eventLoops = new EventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            eventLoops[i] = new EventLoop(this, "promise-event-loop-" + i);
+        }
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.loopThread.start();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        next().execute(task);
+    }
+
+    /**
+     * The loop of the calling thread if it belongs to this group, otherwise the next of the group's loops in turn.
+     */
+    public Executor next() {
+        Thread currentThread = Thread.currentThread();
+        if (currentThread instanceof EventLoopThread && ((EventLoopThread) currentThread).eventLoop.group == this) {
+            return ((EventLoopThread) currentThread).eventLoop;
+        }
+
+        return eventLoops[Math.floorMod(nextLoopIndex.getAndIncrement(), eventLoops.length)];
+    }
+
+    /**
+     * Whether the calling thread is the thread of the given executor, when that executor is one of a group's loops.
+     * Such a thread must never block waiting on work queued to its own loop, as that work can only run once it stops.
+     */
+    public static boolean isCurrentLoop(Executor executor) {
+        Thread currentThread = Thread.currentThread();
+        return currentThread instanceof EventLoopThread && ((EventLoopThread) currentThread).eventLoop == executor;
+    }
+
+    /**
+     * Stops accepting new tasks. Each loop finishes the tasks already queued on it before its thread exits.
+     */
+    public void shutdown() {
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.shutdown();
+        }
+    }
+
+    private static class EventLoop implements Executor, Runnable {
+
+        private static final int DRAIN_BATCH_SIZE = 256;
+
+        private final EventLoopGroup group;
+        private final EventLoopThread loopThread;
+        private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<>();
+
+        private volatile boolean parked = false;
+        private volatile boolean shutdown = false;
+
+        private EventLoop(EventLoopGroup group, String threadName) {
+            this.group = group;
+            this.loopThread = new EventLoopThread(this, threadName);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            requireNonNull(task);
+
+            if (shutdown) {
+                throw new RejectedExecutionException("Event loop has been shut down");
+            }
+
+            taskQueue.offer(task);
+
+            // the loop may have shut down and made its final drain while the task was being offered
+            if (shutdown && taskQueue.remove(task)) {
+                throw new RejectedExecutionException("Event loop has been shut down");
+            }
+
+            if (parked && Thread.currentThread() != loopThread) {
+                LockSupport.unpark(loopThread);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!shutdown || !taskQueue.isEmpty()) {
+                if (drainBatch() == 0) {
+                    parkUntilWoken();
+                }
+            }
+        }
+
+        private int drainBatch() {
+            int tasksRun = 0;
+
+            Runnable task;
+            while (tasksRun < DRAIN_BATCH_SIZE && (task = taskQueue.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    loopThread.getUncaughtExceptionHandler().uncaughtException(loopThread, t);
+                }
+                tasksRun++;
+            }
+
+            return tasksRun;
+        }
+
+        private void parkUntilWoken() {
+            parked = true;
+
+            // re-check after publishing that we are parked, as a task offered before then will not have woken us
+            if (taskQueue.isEmpty() && !shutdown) {
+                LockSupport.park(this);
+            }
+
+            parked = false;
+        }
+
+        private void shutdown() {
+            shutdown = true;
+            LockSupport.unpark(loopThread);
+        }
+    }
+
+    private static class EventLoopThread extends Thread {
+
+        private final EventLoop eventLoop;
+
+        private EventLoopThread(EventLoop eventLoop, String threadName) {
+            super(eventLoop, threadName);
+            this.eventLoop = eventLoop;
+            setDaemon(true);
+        }
+    }
+
+}
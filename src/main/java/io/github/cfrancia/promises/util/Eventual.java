@@ -1,52 +1,276 @@
 package io.github.cfrancia.promises.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Created by cfrancia on 14/08/16.
+ * <p>
+ * Waiting for an item first spins briefly, then yields, and only then parks until the item arrives or the deadline
+ * passes, as an item which is moments away is cheaper to wait for on the spot than through a park and unpark. The
+ * spin is adaptive: it lengthens while spinning keeps paying off and shortens while waiters end up parking anyway.
+ * Each thread tunes its own spin, so waiting threads never contend on it.
+ * Parked waiters are kept on a lock-free stack, so placing an item into an Eventual nobody waits on takes no lock.
  */
 public class Eventual<T> {
-    private volatile T storedItem = null;
 
-    private Lock eventualLock = new ReentrantLock();
-    private Condition eventualCondition = eventualLock.newCondition();
+    private static final Object ABANDONED = new Object();
+
+    private static final int MAX_SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 10 : 0;
+    private static final int MIN_SPINS = MAX_SPINS >> 6;
+    private static final int YIELDS = 4;
+
+    private static final MethodHandle ON_SPIN_WAIT = findOnSpinWait();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Eventual, Object> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(Eventual.class, Object.class, "state");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Eventual, WaitNode> WAITERS =
+            AtomicReferenceFieldUpdater.newUpdater(Eventual.class, WaitNode.class, "waiters");
+
+    // kept per thread, as a limit shared by every waiter would have its cache line written on every resolve
+    private static final ThreadLocal<SpinBudget> SPIN_BUDGET = ThreadLocal.withInitial(SpinBudget::new);
+
+    private volatile Object state = null;
+    private volatile WaitNode waiters = null;
 
     public void place(T item) {
         requireNonNull(item);
 
-        eventualLock.lock();
-        try {
-            if (storedItem != null) {
-                throw new IllegalStateException("Tried to place an additional item into an already filled Eventual");
-            }
+        if (!STATE.compareAndSet(this, null, item)) {
+            throw new IllegalStateException("Tried to place an additional item into an already filled Eventual");
+        }
 
-            storedItem = item;
-            eventualCondition.signalAll();
-        } finally {
-            eventualLock.unlock();
+        releaseWaiters();
+    }
+
+    /**
+     * Marks that no item will ever be placed, releasing anyone waiting. Returns false if the Eventual was already
+     * filled or abandoned.
+     */
+    public boolean abandon() {
+        if (!STATE.compareAndSet(this, null, ABANDONED)) {
+            return false;
         }
+
+        releaseWaiters();
+        return true;
+    }
+
+    public boolean isSettled() {
+        return state != null;
     }
 
+    @SuppressWarnings("unchecked")
     public T view() {
-        return storedItem;
+        Object currentState = state;
+        return currentState != ABANDONED ? (T) currentState : null;
     }
 
     public T view(int timeout, TimeUnit timeUnit) throws InterruptedException {
-        eventualLock.lock();
+        if (state == null) {
+            awaitSettled(System.nanoTime() + timeUnit.toNanos(timeout));
+        }
+
+        return view();
+    }
+
+    /**
+     * Waits with a single parked thread until every given Eventual has been filled or abandoned, returning false if
+     * the timeout elapses first.
+     */
+    public static boolean awaitAll(Collection<? extends Eventual<?>> eventuals, int timeout, TimeUnit timeUnit)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+
+        // starts at one so that nodes released while still registering cannot bring it to zero early
+        AtomicInteger unsettledCount = new AtomicInteger(1);
+        List<Eventual<?>> registeredEventuals = new ArrayList<>();
+        List<WaitNode> registeredNodes = new ArrayList<>();
+
+        for (Eventual<?> eventual : eventuals) {
+            if (eventual.state == null) {
+                unsettledCount.incrementAndGet();
+
+                WaitNode node = new WaitNode(Thread.currentThread(), unsettledCount);
+                eventual.pushWaiter(node);
+                registeredEventuals.add(eventual);
+                registeredNodes.add(node);
+            }
+        }
+
         try {
-            if (storedItem != null) {
-                return storedItem;
+            return unsettledCount.decrementAndGet() == 0 || parkUntil(() -> unsettledCount.get() == 0, deadline);
+        } finally {
+            for (int i = 0; i < registeredEventuals.size(); i++) {
+                registeredEventuals.get(i).removeWaiter(registeredNodes.get(i));
             }
+        }
+    }
 
-            eventualCondition.await(timeout, timeUnit);
-            return storedItem;
+    private boolean awaitSettled(long deadline) throws InterruptedException {
+        SpinBudget spinBudget = SPIN_BUDGET.get();
+        int spins = spinBudget.limit;
+        for (int i = 0; i < spins; i++) {
+            if (state != null) {
+                spinBudget.limit = Math.min(MAX_SPINS, spins << 1);
+                return true;
+            }
+            onSpinWait();
+        }
+
+        for (int i = 0; i < YIELDS; i++) {
+            if (state != null) {
+                return true;
+            }
+            Thread.yield();
+        }
+
+        spinBudget.limit = Math.max(MIN_SPINS, spins >> 1);
+
+        WaitNode node = new WaitNode(Thread.currentThread(), null);
+        pushWaiter(node);
+        try {
+            return parkUntil(() -> state != null, deadline);
         } finally {
-            eventualLock.unlock();
+            removeWaiter(node);
+        }
+    }
+
+    /**
+     * Parks until the condition holds, re-checking it after every wakeup, as a thread may be unparked spuriously or by
+     * a release meant for an earlier wait.
+     */
+    private static boolean parkUntil(Condition condition, long deadline) throws InterruptedException {
+        while (!condition.holds()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return false;
+            }
+
+            LockSupport.parkNanos(Eventual.class, remainingNanos);
         }
+
+        return true;
+    }
+
+    private void pushWaiter(WaitNode node) {
+        WaitNode head;
+        do {
+            head = waiters;
+            node.next = head;
+        } while (!WAITERS.compareAndSet(this, head, node));
+
+        // the Eventual may have settled before the node was pushed, in which case nobody else will release it
+        if (state != null) {
+            node.release();
+        }
+    }
+
+    private void releaseWaiters() {
+        for (WaitNode node = WAITERS.getAndSet(this, null); node != null; node = node.next) {
+            node.release();
+        }
+    }
+
+    private void removeWaiter(WaitNode node) {
+        node.thread = null;
+
+        // unlinks every node whose waiter has gone, restarting whenever a concurrent change is detected
+        retry:
+        for (;;) {
+            WaitNode predecessor = null;
+            for (WaitNode current = waiters, successor; current != null; current = successor) {
+                successor = current.next;
+
+                if (current.thread != null) {
+                    predecessor = current;
+                } else if (predecessor != null) {
+                    predecessor.next = successor;
+                    if (predecessor.thread == null) {
+                        continue retry;
+                    }
+                } else if (!WAITERS.compareAndSet(this, current, successor)) {
+                    continue retry;
+                }
+            }
+            return;
+        }
+    }
+
+    private static void onSpinWait() {
+        if (ON_SPIN_WAIT != null) {
+            try {
+                ON_SPIN_WAIT.invokeExact();
+            } catch (Throwable ignored) {
+                // Thread.onSpinWait declares no exceptions
+            }
+        }
+    }
+
+    private static MethodHandle findOnSpinWait() {
+        // Thread.onSpinWait only exists from Java 9, so on Java 8 the spin simply goes without the hint
+        try {
+            return MethodHandles.lookup().findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+
+        boolean holds();
+
     }
+
+    private static class SpinBudget {
+
+        private int limit = MAX_SPINS >> 2;
+
+    }
+
+    private static class WaitNode {
+
+        private static final AtomicIntegerFieldUpdater<WaitNode> RELEASED =
+                AtomicIntegerFieldUpdater.newUpdater(WaitNode.class, "released");
+
+        private volatile Thread thread;
+        private final AtomicInteger unsettledCount;
+        private volatile WaitNode next = null;
+        private volatile int released = 0;
+
+        private WaitNode(Thread thread, AtomicInteger unsettledCount) {
+            this.thread = thread;
+            this.unsettledCount = unsettledCount;
+        }
+
+        private void release() {
+            if (!RELEASED.compareAndSet(this, 0, 1)) {
+                return;
+            }
+
+            Thread waitingThread = thread;
+            if (waitingThread != null && (unsettledCount == null || unsettledCount.decrementAndGet() == 0)) {
+                LockSupport.unpark(waitingThread);
+            }
+        }
+    }
+
 }
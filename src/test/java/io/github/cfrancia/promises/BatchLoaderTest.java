@@ -0,0 +1,154 @@
+package io.github.cfrancia.promises;
+
+import io.github.cfrancia.promises.exception.FailedPromiseException;
+import io.github.cfrancia.promises.util.TestExecutors;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BatchLoaderTest {
+
+    private final List<List<String>> requestedBatches = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void shouldLoadKeysInSingleBulkCallOnceMaxBatchSizeIsReached() {
+        BatchLoader<String, String> batchLoader = BatchLoader.batchLoader(upperCasingLoader(), 3, Duration.ofHours(1),
+                TestExecutors.sameThreadExecutor());
+
+        Promise<String> first = batchLoader.load("a");
+        Promise<String> second = batchLoader.load("b");
+        Promise<String> third = batchLoader.load("c");
+
+        assertThat(first.resolve(1, TimeUnit.SECONDS), is("A"));
+        assertThat(second.resolve(1, TimeUnit.SECONDS), is("B"));
+        assertThat(third.resolve(1, TimeUnit.SECONDS), is("C"));
+        assertThat(requestedBatches, is(Collections.singletonList(Arrays.asList("a", "b", "c"))));
+    }
+
+    @Test
+    public void shouldLoadPartialBatchOnceBatchWindowHasElapsed() {
+        BatchLoader<String, String> batchLoader = BatchLoader.batchLoader(upperCasingLoader(), 100, Duration.ofMillis(10),
+                TestExecutors.sameThreadExecutor());
+
+        Promise<String> first = batchLoader.load("a");
+        Promise<String> second = batchLoader.load("b");
+
+        assertThat(first.resolve(1, TimeUnit.SECONDS), is("A"));
+        assertThat(second.resolve(1, TimeUnit.SECONDS), is("B"));
+        assertThat(requestedBatches, is(Collections.singletonList(Arrays.asList("a", "b"))));
+    }
+
+    @Test
+    public void shouldLoadKeyRequestedMultipleTimesWithinBatchOnce() {
+        BatchLoader<String, String> batchLoader = BatchLoader.batchLoader(upperCasingLoader(), 2, Duration.ofHours(1),
+                TestExecutors.sameThreadExecutor());
+
+        Promise<String> first = batchLoader.load("a");
+        Promise<String> second = batchLoader.load("a");
+        batchLoader.load("b");
+
+        assertThat(first.resolve(1, TimeUnit.SECONDS), is("A"));
+        assertThat(second.resolve(1, TimeUnit.SECONDS), is("A"));
+        assertThat(requestedBatches, is(Collections.singletonList(Arrays.asList("a", "b"))));
+    }
+
+    @Test
+    public void shouldOnlyFailPromisesForKeysMissingFromBulkResult() {
+        BatchLoader<String, String> batchLoader = BatchLoader.batchLoader((keys) -> {
+            Map<String, String> values = upperCasingLoader().apply(keys);
+            values.remove("b");
+            return values;
+        }, 2, Duration.ofHours(1), TestExecutors.sameThreadExecutor());
+
+        Promise<String> first = batchLoader.load("a");
+        Promise<String> second = batchLoader.load("b");
+
+        assertThat(first.resolve(1, TimeUnit.SECONDS), is("A"));
+        assertFailedWith(second, NoSuchElementException.class);
+    }
+
+    @Test
+    public void shouldFailEveryPromiseInBatchWhenBulkLoaderThrows() {
+        BatchLoader<String, String> batchLoader = BatchLoader.batchLoader((keys) -> {
+            throw new IllegalArgumentException();
+        }, 2, Duration.ofHours(1), TestExecutors.sameThreadExecutor());
+
+        Promise<String> first = batchLoader.load("a");
+        Promise<String> second = batchLoader.load("b");
+
+        assertFailedWith(first, IllegalArgumentException.class);
+        assertFailedWith(second, IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldSettleRemainingKeysWhenStepChainedOntoOneKeyThrows() {
+        ExecutorService executor = newCachedThreadPool();
+        BatchLoader<String, String> batchLoader = BatchLoader.batchLoader(upperCasingLoader(), 2, Duration.ofHours(1),
+                executor);
+
+        try {
+            batchLoader.load("a").consume((result) -> {
+                throw new IllegalStateException();
+            });
+            Promise<String> second = batchLoader.load("b");
+
+            assertThat(second.resolve(1, TimeUnit.SECONDS), is("B"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldFailEveryPromiseInBatchWhenExecutorRejectsIt() {
+        ExecutorService executor = newSingleThreadExecutor();
+        executor.shutdown();
+        BatchLoader<String, String> batchLoader = BatchLoader.batchLoader(upperCasingLoader(), 2, Duration.ofMillis(10),
+                executor);
+
+        Promise<String> first = batchLoader.load("a");
+        Promise<String> fullBatch = batchLoader.load("b");
+        Promise<String> windowedBatch = batchLoader.load("c");
+
+        assertFailedWith(first, RejectedExecutionException.class);
+        assertFailedWith(fullBatch, RejectedExecutionException.class);
+        assertFailedWith(windowedBatch, RejectedExecutionException.class);
+    }
+
+    private Function<List<String>, Map<String, String>> upperCasingLoader() {
+        return (keys) -> {
+            requestedBatches.add(keys);
+
+            Map<String, String> values = new HashMap<>();
+            keys.forEach((key) -> values.put(key, key.toUpperCase()));
+            return values;
+        };
+    }
+
+    private static void assertFailedWith(Promise<?> promise, Class<?> exceptionType) {
+        try {
+            promise.resolve(1, TimeUnit.SECONDS);
+            fail("Should have thrown FailedPromiseException");
+        } catch (FailedPromiseException e) {
+            assertThat(e.getCause(), is(instanceOf(exceptionType)));
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package io.github.cfrancia.promises;
+
+import io.github.cfrancia.promises.exception.FailedPromiseException;
+import io.github.cfrancia.promises.util.BufferPool;
+import io.github.cfrancia.promises.util.TestExecutors;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ChannelPromisesTest {
+
+    private final BufferPool bufferPool = new BufferPool(64, 4);
+
+    @Test
+    public void shouldWriteAndReadBackFile() throws IOException {
+        Path tempFile = Files.createTempFile("channel-promises", ".tmp");
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(tempFile, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            Promise<Integer> bytesWritten = ChannelPromises.write(channel, encode("Hello!"), 0,
+                    TestExecutors.sameThreadExecutor());
+            assertThat(bytesWritten.resolve(1, TimeUnit.SECONDS), is(6));
+
+            Promise<String> readBack = ChannelPromises.read(channel, 0, bufferPool, TestExecutors.sameThreadExecutor())
+                    .then(this::decodeAndRelease);
+            assertThat(readBack.resolve(1, TimeUnit.SECONDS), is("Hello!"));
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    public void shouldWriteAndReadOverLoopbackSocket() throws Exception {
+        try (AsynchronousServerSocketChannel server = AsynchronousServerSocketChannel.open()
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             AsynchronousSocketChannel client = AsynchronousSocketChannel.open()) {
+            Future<AsynchronousSocketChannel> accepted = server.accept();
+            client.connect(server.getLocalAddress()).get(1, TimeUnit.SECONDS);
+
+            try (AsynchronousSocketChannel serverSide = accepted.get(1, TimeUnit.SECONDS)) {
+                Promise<String> received = ChannelPromises.read(serverSide, bufferPool)
+                        .then(this::decodeAndRelease);
+                Promise<Integer> sent = ChannelPromises.write(client, encode("Hello!"));
+
+                assertThat(sent.resolve(1, TimeUnit.SECONDS), is(6));
+                assertThat(received.resolve(1, TimeUnit.SECONDS), is("Hello!"));
+            }
+        }
+    }
+
+    @Test
+    public void shouldFailReadAndReturnBufferToPoolWhenExecutorRejectsCompletion() throws IOException {
+        ByteBuffer pooledBuffer = bufferPool.acquire();
+        bufferPool.release(pooledBuffer);
+
+        Path tempFile = Files.createTempFile("channel-promises", ".tmp");
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(tempFile, StandardOpenOption.READ)) {
+            Promise<ByteBuffer> promise = ChannelPromises.read(channel, 0, bufferPool, (task) -> {
+                throw new RejectedExecutionException();
+            });
+
+            try {
+                promise.resolve(1, TimeUnit.SECONDS);
+                fail("Should have thrown FailedPromiseException");
+            } catch (FailedPromiseException e) {
+                assertThat(e.getCause(), is(instanceOf(RejectedExecutionException.class)));
+            }
+            assertThat(bufferPool.acquire(), is(sameInstance(pooledBuffer)));
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    public void shouldReuseReleasedBuffers() {
+        ByteBuffer buffer = bufferPool.acquire();
+        bufferPool.release(buffer);
+
+        assertThat(bufferPool.acquire(), is(sameInstance(buffer)));
+    }
+
+    private static ByteBuffer encode(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeAndRelease(ByteBuffer buffer) {
+        try {
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package io.github.cfrancia.promises;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class HedgePolicyTest {
+
+    @Test
+    public void shouldUseInitialHedgeDelayUntilEnoughLatenciesHaveBeenRecorded() {
+        HedgePolicy hedgePolicy = HedgePolicy.adaptive(50, Duration.ofNanos(1000), 2);
+
+        for (int i = 1; i <= 10; i++) {
+            hedgePolicy.recordLatency(i);
+        }
+
+        assertThat(hedgePolicy.getHedgeDelayNanos(), is(1000L));
+    }
+
+    @Test
+    public void shouldAdaptHedgeDelayToRecordedLatencyPercentile() {
+        HedgePolicy hedgePolicy = HedgePolicy.adaptive(50, Duration.ofNanos(1000), 2);
+
+        for (int i = 1; i <= 128; i++) {
+            hedgePolicy.recordLatency(i);
+        }
+
+        assertThat(hedgePolicy.getHedgeDelayNanos(), is(64L));
+    }
+
+    @Test
+    public void shouldKeepFixedHedgeDelayRegardlessOfRecordedLatencies() {
+        HedgePolicy hedgePolicy = HedgePolicy.fixed(Duration.ofNanos(1000), 2);
+
+        for (int i = 1; i <= 128; i++) {
+            hedgePolicy.recordLatency(i);
+        }
+
+        assertThat(hedgePolicy.getHedgeDelayNanos(), is(1000L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPolicyWithoutAnyAttempts() {
+        HedgePolicy.fixed(Duration.ofMillis(10), 0);
+    }
+
+}
@@ -0,0 +1,228 @@
+package io.github.cfrancia.promises;
+
+import io.github.cfrancia.promises.util.TestExecutors;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PromiseJournalTest {
+
+    private final Path journalDirectory;
+    private final AtomicInteger supplierInvocations = new AtomicInteger();
+    private final List<String> failedAppendIds = new CopyOnWriteArrayList<>();
+    private final List<RuntimeException> appendFailures = new CopyOnWriteArrayList<>();
+
+    public PromiseJournalTest() throws IOException {
+        journalDirectory = Files.createTempDirectory("promise-journal");
+    }
+
+    @After
+    public void deleteJournalDirectory() throws IOException {
+        try (Stream<Path> journalFiles = Files.walk(journalDirectory)) {
+            journalFiles.sorted(Comparator.reverseOrder()).forEach((path) -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void shouldRehydrateRecordedValueInsteadOfRunningSupplierAfterReopening() throws IOException {
+        try (PromiseJournal journal = openJournal()) {
+            assertThat(durablePromise("aggregate", "Hello!", journal).resolve(1, TimeUnit.SECONDS), is("Hello!"));
+        }
+
+        try (PromiseJournal journal = openJournal()) {
+            assertThat(durablePromise("aggregate", "Goodbye!", journal).resolve(1, TimeUnit.SECONDS), is("Hello!"));
+        }
+
+        assertThat(supplierInvocations.get(), is(1));
+    }
+
+    @Test
+    public void shouldRunSupplierAgainOnceIdHasBeenForgotten() throws IOException {
+        try (PromiseJournal journal = openJournal()) {
+            durablePromise("aggregate", "Hello!", journal).resolve(1, TimeUnit.SECONDS);
+            journal.forget("aggregate");
+        }
+
+        try (PromiseJournal journal = openJournal()) {
+            assertFalse(journal.contains("aggregate"));
+            assertThat(durablePromise("aggregate", "Goodbye!", journal).resolve(1, TimeUnit.SECONDS), is("Goodbye!"));
+        }
+    }
+
+    @Test
+    public void shouldRollOverToNewSegmentsOnceSegmentIsFull() throws IOException {
+        try (PromiseJournal journal = openJournal()) {
+            for (int i = 0; i < 100; i++) {
+                durablePromise("aggregate-" + i, "Value " + i, journal).resolve(1, TimeUnit.SECONDS);
+            }
+        }
+
+        assertTrue(countSegmentFiles() > 1);
+
+        try (PromiseJournal journal = openJournal()) {
+            for (int i = 0; i < 100; i++) {
+                assertThat(durablePromise("aggregate-" + i, "", journal).resolve(1, TimeUnit.SECONDS), is("Value " + i));
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepLatestValuesAndDropForgottenIdsWhenCompacting() throws IOException {
+        try (PromiseJournal journal = openJournal()) {
+            for (int i = 0; i < 100; i++) {
+                durablePromise("aggregate-" + (i % 10), "Value " + i, journal).resolve(1, TimeUnit.SECONDS);
+                journal.forget("aggregate-" + (i % 10));
+            }
+            durablePromise("aggregate-0", "Kept", journal).resolve(1, TimeUnit.SECONDS);
+
+            long segmentFilesBeforeCompaction = countSegmentFiles();
+            journal.compact();
+
+            assertTrue(countSegmentFiles() < segmentFilesBeforeCompaction);
+            assertThat(durablePromise("aggregate-0", "", journal).resolve(1, TimeUnit.SECONDS), is("Kept"));
+        }
+
+        try (PromiseJournal journal = openJournal()) {
+            assertThat(durablePromise("aggregate-0", "", journal).resolve(1, TimeUnit.SECONDS), is("Kept"));
+            assertFalse(journal.contains("aggregate-1"));
+        }
+    }
+
+    @Test
+    public void shouldNotReplayPartialCompactionOverLaterRecordsWhenCompactionFails() throws IOException {
+        try (PromiseJournal journal = openJournal()) {
+            for (int i = 0; i < 10; i++) {
+                durablePromise("aggregate-" + i, "Value " + i, journal).resolve(1, TimeUnit.SECONDS);
+            }
+
+            // the ten records fill segments 0 and 1, so compaction writes 2 and then fails to create 3
+            long segmentFilesBeforeCompaction = countSegmentFiles();
+            Path blockingDirectory = Files.createDirectory(journalDirectory.resolve(segmentFileName(3)));
+            try {
+                journal.compact();
+                fail("Should have thrown IOException");
+            } catch (IOException e) {
+                // expected
+            }
+            Files.delete(blockingDirectory);
+
+            assertThat(countSegmentFiles(), is(segmentFilesBeforeCompaction));
+
+            journal.forget("aggregate-0");
+            journal.append("aggregate-1", PromiseCodec.utf8().encode("Newer"));
+            for (int i = 10; i < 30; i++) {
+                durablePromise("aggregate-" + i, "Value " + i, journal).resolve(1, TimeUnit.SECONDS);
+            }
+        }
+
+        try (PromiseJournal journal = openJournal()) {
+            assertFalse(journal.contains("aggregate-0"));
+            assertThat(durablePromise("aggregate-1", "", journal).resolve(1, TimeUnit.SECONDS), is("Newer"));
+            assertThat(durablePromise("aggregate-29", "", journal).resolve(1, TimeUnit.SECONDS), is("Value 29"));
+        }
+    }
+
+    @Test
+    public void shouldIgnoreIncompleteRecordLeftAtEndOfJournal() throws IOException {
+        try (PromiseJournal journal = openJournal()) {
+            durablePromise("first", "Hello!", journal).resolve(1, TimeUnit.SECONDS);
+        }
+
+        Path segmentFile;
+        try (Stream<Path> journalFiles = Files.list(journalDirectory)) {
+            segmentFile = journalFiles.findFirst().orElseThrow(IllegalStateException::new);
+        }
+        byte[] segmentBytes = Files.readAllBytes(segmentFile);
+        int endOfRecords = 0;
+        while (ByteBuffer.wrap(segmentBytes, endOfRecords, 4).getInt() != 0) {
+            endOfRecords += 8 + ByteBuffer.wrap(segmentBytes, endOfRecords, 4).getInt();
+        }
+        ByteBuffer.wrap(segmentBytes, endOfRecords, 12).putInt(32).putInt(12345).putInt(5);
+        Files.write(segmentFile, segmentBytes);
+
+        try (PromiseJournal journal = openJournal()) {
+            assertThat(durablePromise("first", "", journal).resolve(1, TimeUnit.SECONDS), is("Hello!"));
+            durablePromise("second", "World!", journal).resolve(1, TimeUnit.SECONDS);
+        }
+
+        try (PromiseJournal journal = openJournal()) {
+            assertThat(durablePromise("second", "", journal).resolve(1, TimeUnit.SECONDS), is("World!"));
+        }
+    }
+
+    @Test
+    public void shouldFulfillPromiseAndReportFailureWhenValueIsTooLargeToRecord() throws IOException {
+        StringBuilder oversizedValue = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            oversizedValue.append('x');
+        }
+
+        try (PromiseJournal journal = openJournal()) {
+            Promise<String> promise = durablePromise("oversized", oversizedValue.toString(), journal);
+
+            assertThat(promise.resolve(1, TimeUnit.SECONDS), is(oversizedValue.toString()));
+            assertFalse(journal.contains("oversized"));
+        }
+
+        assertThat(failedAppendIds, is(Collections.singletonList("oversized")));
+        assertThat(appendFailures.get(0), instanceOf(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void shouldFulfillPromiseAndReportFailureWhenJournalHasBeenClosed() throws IOException {
+        PromiseJournal journal = openJournal();
+        journal.close();
+
+        assertThat(durablePromise("aggregate", "Hello!", journal).resolve(1, TimeUnit.SECONDS), is("Hello!"));
+
+        assertThat(failedAppendIds, is(Collections.singletonList("aggregate")));
+        assertThat(appendFailures.get(0), instanceOf(IllegalStateException.class));
+    }
+
+    private PromiseJournal openJournal() throws IOException {
+        return PromiseJournal.open(journalDirectory, 256, Duration.ofMillis(10), (id, failure) -> {
+            failedAppendIds.add(id);
+            appendFailures.add(failure);
+        });
+    }
+
+    private Promise<String> durablePromise(String id, String value, PromiseJournal journal) {
+        Supplier<String> countingSupplier = () -> {
+            supplierInvocations.incrementAndGet();
+            return value;
+        };
+
+        return Promise.durable(id, countingSupplier, PromiseCodec.utf8(), journal, TestExecutors.sameThreadExecutor());
+    }
+
+    private static String segmentFileName(long sequence) {
+        return String.format("segment-%020d.journal", sequence);
+    }
+
+    private long countSegmentFiles() throws IOException {
+        try (Stream<Path> journalFiles = Files.list(journalDirectory)) {
+            return journalFiles.count();
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+package io.github.cfrancia.promises;
+
+import io.github.cfrancia.promises.util.TestExecutors;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PromisePipelineTest {
+
+    private final TestExecutors.SteppingExecutor steppingExecutor = TestExecutors.steppingExecutor();
+    private final AtomicInteger promisesCreated = new AtomicInteger();
+
+    @Test
+    public void shouldEmitValuesInInputOrderWhenLaterPromisesCompleteFirst() throws InterruptedException {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Promise.pipeline(range(20).iterator(), (value) -> Promise.promise(() -> {
+                sleepUninterruptibly(20 - value);
+                return value;
+            }, executor), 8).subscribe(subscriber);
+
+            assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+            assertThat(subscriber.values, is(range(20)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldNeverHaveMoreThanMaxInFlightPromisesOutstanding() {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+
+        Promise.pipeline(range(100).iterator(), this::steppedPromise, 4).subscribe(subscriber);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(promisesCreated.get() - subscriber.values.size(), is(Math.min(4, 100 - i)));
+            steppingExecutor.step();
+        }
+
+        assertThat(subscriber.values, is(range(100)));
+        assertThat(subscriber.completed.getCount(), is(0L));
+    }
+
+    @Test
+    public void shouldOnlyEmitAsManyValuesAsRequested() {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(2);
+
+        Promise.pipeline(range(10).iterator(), this::steppedPromise, 4).subscribe(subscriber);
+        for (int i = 0; i < 10; i++) {
+            steppingExecutor.step();
+        }
+
+        assertThat(subscriber.values, is(range(2)));
+        assertThat(promisesCreated.get(), is(6));
+
+        subscriber.subscription.request(8);
+        for (int i = 0; i < 10; i++) {
+            steppingExecutor.step();
+        }
+
+        assertThat(subscriber.values, is(range(10)));
+        assertThat(subscriber.completed.getCount(), is(0L));
+    }
+
+    @Test
+    public void shouldFailPipelineAtFirstFailedPromiseInInputOrder() {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+
+        Promise.pipeline(range(10).iterator(), (value) -> Promise.promise(() -> {
+            if (value == 3) {
+                throw new IllegalArgumentException();
+            }
+            return value;
+        }, TestExecutors.sameThreadExecutor()), 4).subscribe(subscriber);
+
+        assertThat(subscriber.values, is(range(3)));
+        assertThat(subscriber.error, is(instanceOf(IllegalArgumentException.class)));
+        assertThat(subscriber.completed.getCount(), is(1L));
+    }
+
+    @Test
+    public void shouldFailPipelineWhenPromiseFunctionReturnsNull() {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+
+        Promise.pipeline(range(10).iterator(), (value) -> value == 3
+                ? null
+                : Promise.promise(() -> value, TestExecutors.sameThreadExecutor()), 4).subscribe(subscriber);
+
+        assertThat(subscriber.values, is(range(3)));
+        assertThat(subscriber.error, is(instanceOf(NullPointerException.class)));
+    }
+
+    @Test
+    public void shouldFailPipelineWhenPromiseFunctionReturnsAlreadyChainedPromise() {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+
+        Promise.pipeline(range(10).iterator(), (value) -> {
+            Promise<Integer> promise = steppedPromise(value);
+            if (value == 3) {
+                promise.consume((ignored) -> {
+                });
+            }
+            return promise;
+        }, 4).subscribe(subscriber);
+        for (int i = 0; i < 10; i++) {
+            steppingExecutor.step();
+        }
+
+        assertThat(subscriber.values, is(range(3)));
+        assertThat(subscriber.error, is(instanceOf(IllegalStateException.class)));
+    }
+
+    private Promise<Integer> steppedPromise(int value) {
+        promisesCreated.incrementAndGet();
+        return Promise.promise(() -> value, steppingExecutor);
+    }
+
+    private static List<Integer> range(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    private static void sleepUninterruptibly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingSubscriber<R> implements PromisePipeline.Subscriber<R> {
+
+        private final long initialRequest;
+
+        private final List<R> values = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile PromisePipeline.Subscription subscription = null;
+        private volatile Exception error = null;
+
+        private RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(PromisePipeline.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(R value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            error = exception;
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+}
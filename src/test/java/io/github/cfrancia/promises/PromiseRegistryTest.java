@@ -0,0 +1,82 @@
+package io.github.cfrancia.promises;
+
+import io.github.cfrancia.promises.util.TestExecutors;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PromiseRegistryTest {
+
+    private final PromiseRegistry registry = new PromiseRegistry(2, 8);
+    private final TestExecutors.SteppingExecutor steppingExecutor = TestExecutors.steppingExecutor();
+
+    @Test
+    public void shouldCountPendingPromisesByCreationSite() {
+        for (int i = 0; i < 3; i++) {
+            registry.register(pendingPromise());
+        }
+
+        PromiseRegistry.Snapshot snapshot = registry.takeSnapshot();
+
+        assertThat(snapshot.getPendingCount(), is(3L));
+        assertThat(snapshot.getPendingCountsBySite().size(), is(1));
+        String creationSite = snapshot.getPendingCountsBySite().keySet().iterator().next();
+        assertTrue(creationSite.startsWith(PromiseRegistryTest.class.getName() + ".shouldCountPendingPromisesByCreationSite"));
+        assertTrue(snapshot.getOldestPendingAgeMillisBySite().get(creationSite) >= 0);
+    }
+
+    @Test
+    public void shouldNoLongerCountPromisesOnceCompleted() {
+        registry.register(pendingPromise());
+        registry.register(pendingPromise());
+
+        steppingExecutor.step();
+
+        assertThat(registry.takeSnapshot().getPendingCount(), is(1L));
+    }
+
+    @Test
+    public void shouldReuseSlotsOfCompletedPromises() {
+        PromiseRegistry singleSlotRegistry = new PromiseRegistry(1, 1);
+
+        singleSlotRegistry.register(pendingPromise());
+        steppingExecutor.step();
+        singleSlotRegistry.register(pendingPromise());
+
+        assertThat(singleSlotRegistry.takeSnapshot().getPendingCount(), is(1L));
+        assertThat(singleSlotRegistry.takeSnapshot().getUntrackedCount(), is(0L));
+    }
+
+    @Test
+    public void shouldCountPromisesWhichCouldNotFindFreeSlotAsUntracked() {
+        PromiseRegistry singleSlotRegistry = new PromiseRegistry(1, 1);
+
+        singleSlotRegistry.register(pendingPromise());
+        singleSlotRegistry.register(pendingPromise());
+
+        assertThat(singleSlotRegistry.takeSnapshot().getPendingCount(), is(1L));
+        assertThat(singleSlotRegistry.takeSnapshot().getUntrackedCount(), is(1L));
+    }
+
+    @Test
+    public void shouldExposeSnapshotOverJmx() throws Exception {
+        MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+        ObjectName objectName = new ObjectName(PromiseRegistry.OBJECT_NAME);
+        registry.registerMBean(mBeanServer, objectName);
+
+        registry.register(pendingPromise());
+
+        assertThat(mBeanServer.getAttribute(objectName, "PendingCount"), is(1L));
+    }
+
+    private AbstractPromise<String> pendingPromise() {
+        return (AbstractPromise<String>) Promise.promise(() -> "Hello!", steppingExecutor);
+    }
+
+}
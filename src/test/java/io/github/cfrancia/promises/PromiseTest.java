@@ -9,12 +9,25 @@ import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.hamcrest.core.Is;
 import org.junit.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static java.lang.String.format;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.core.Is.is;
@@ -138,6 +151,14 @@ public class PromiseTest {
         assertThat(promise, resolvesTo("Hi!"));
     }
 
+    @Test
+    public void shouldFailOverToAlternateSupplierWhenSupplierReturnsNull() {
+        Promise<String> promise = Promise.promise(() -> (String) null, TestExecutors.sameThreadExecutor())
+                .or(() -> "recovered");
+
+        assertThat(promise, resolvesTo("recovered"));
+    }
+
     @Test
     public void shouldPassthroughExceptionWhenFailingOverToAlternateSupplier() {
         StoringConsumer<Exception> exceptionStore = new StoringConsumer<>();
@@ -172,6 +193,294 @@ public class PromiseTest {
         assertThat(combinedPromise,  CoreMatchers.anyOf(resolvesTo("HELLO WORLD"), resolvesTo("WORLD HELLO")));
     }
 
+    @Test
+    public void shouldRunChainOfTenStagesInSingleTask() {
+        assertChainOfDepthResolvesWithinSingleStep(10);
+    }
+
+    @Test
+    public void shouldRunChainOfOneHundredStagesInSingleTask() {
+        assertChainOfDepthResolvesWithinSingleStep(100);
+    }
+
+    @Test
+    public void shouldPassValueThroughDeepChainOfAlternateSuppliersWithoutGrowingStack() {
+        TestExecutors.SteppingExecutor steppingExecutor = TestExecutors.steppingExecutor();
+
+        Promise<Integer> promise = Promise.promise(() -> 1, steppingExecutor);
+        for (int i = 0; i < 10000; i++) {
+            promise = promise.or((ignored) -> -1);
+        }
+
+        steppingExecutor.step();
+
+        assertThat(promise.maybeResolve(), is(optionalOf(1)));
+    }
+
+    @Test(expected = FailedPromiseException.class)
+    public void shouldPassFailureThroughDeepChainOfMutatorsWithoutGrowingStack() {
+        TestExecutors.SteppingExecutor steppingExecutor = TestExecutors.steppingExecutor();
+
+        Promise<String> promise = Promise.promise(buildThrowingSupplier(), steppingExecutor);
+        for (int i = 0; i < 10000; i++) {
+            promise = promise.then(String::toUpperCase);
+        }
+
+        steppingExecutor.step();
+
+        promise.maybeResolve();
+    }
+
+    @Test
+    public void shouldFoldAlternateSuppliersIntoFusedChain() {
+        TestExecutors.SteppingExecutor steppingExecutor = TestExecutors.steppingExecutor();
+
+        Promise<String> promise = Promise.promise(buildThrowingSupplier(), steppingExecutor)
+                .then(String::toUpperCase)
+                .or((ignored) -> "Hi!")
+                .then(String::toUpperCase);
+
+        steppingExecutor.step();
+
+        assertThat(promise.maybeResolve(), is(optionalOf("HI!")));
+    }
+
+    @Test
+    public void shouldStillResolveIntermediateStagesOfFusedChain() {
+        TestExecutors.SteppingExecutor steppingExecutor = TestExecutors.steppingExecutor();
+
+        Promise<String> intermediatePromise = Promise.promise(() -> "Hello!", steppingExecutor)
+                .then(String::toUpperCase);
+        Promise<Integer> finalPromise = intermediatePromise.then(String::length);
+
+        steppingExecutor.step();
+
+        assertThat(intermediatePromise.maybeResolve(), is(optionalOf("HELLO!")));
+        assertThat(finalPromise.maybeResolve(), is(optionalOf(6)));
+    }
+
+    @Test
+    public void shouldNotRunLazyPromiseSupplierUntilObserved() {
+        TestExecutors.SteppingExecutor steppingExecutor = TestExecutors.steppingExecutor();
+        AtomicInteger invocations = new AtomicInteger();
+
+        Promise<String> promise = Promise.lazy(() -> {
+            invocations.incrementAndGet();
+            return "Hello!";
+        }, steppingExecutor);
+
+        steppingExecutor.step();
+        assertThat(invocations.get(), is(0));
+
+        Promise<String> chainedPromise = promise.then(String::toUpperCase);
+        steppingExecutor.step();
+
+        assertThat(invocations.get(), is(1));
+        assertThat(chainedPromise.maybeResolve(), is(optionalOf("HELLO!")));
+    }
+
+    @Test
+    public void shouldRunLazyPromiseSupplierOnceForConcurrentObservers() throws InterruptedException {
+        AtomicInteger invocations = new AtomicInteger();
+        Promise<String> promise = Promise.lazy(() -> {
+            invocations.incrementAndGet();
+            return "Hello!";
+        }, newCachedThreadPool());
+
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> observers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread observer = new Thread(() -> {
+                awaitUninterruptibly(startLatch);
+                promise.resolve(1, TimeUnit.SECONDS);
+            });
+            observer.start();
+            observers.add(observer);
+        }
+
+        startLatch.countDown();
+        for (Thread observer : observers) {
+            observer.join();
+        }
+
+        assertThat(invocations.get(), is(1));
+        assertThat(promise, resolvesTo("Hello!"));
+    }
+
+    @Test
+    public void shouldStartBackupAttemptWhenFirstAttemptIsSlow() {
+        CountDownLatch slowAttemptLatch = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        HedgePolicy hedgePolicy = HedgePolicy.fixed(Duration.ofMillis(10), 2);
+        ExecutorService executor = newCachedThreadPool();
+
+        Promise<String> promise = Promise.hedged(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                awaitUninterruptibly(slowAttemptLatch);
+                return "Slow";
+            }
+            return "Fast";
+        }, hedgePolicy, executor);
+
+        try {
+            assertThat(promise, resolvesTo("Fast"));
+            assertThat(hedgePolicy.getHedgesFired(), is(1L));
+            assertThat(hedgePolicy.getHedgesWon(), is(1L));
+        } finally {
+            slowAttemptLatch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldLetRunningHedgeWinWhenFirstAttemptFails() {
+        CountDownLatch hedgeStartedLatch = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        ExecutorService executor = newCachedThreadPool();
+
+        Promise<String> promise = Promise.hedged(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                awaitUninterruptibly(hedgeStartedLatch);
+                throw new IllegalArgumentException();
+            }
+            hedgeStartedLatch.countDown();
+            return "Hedged";
+        }, HedgePolicy.fixed(Duration.ofMillis(10), 2), executor);
+
+        try {
+            assertThat(promise, resolvesTo("Hedged"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldNotStartBackupAttemptWhenFirstAttemptIsFast() {
+        HedgePolicy hedgePolicy = HedgePolicy.fixed(Duration.ofSeconds(1), 3);
+
+        Promise<String> promise = Promise.hedged(() -> "Hello!", hedgePolicy, TestExecutors.sameThreadExecutor());
+
+        assertThat(promise, resolvesTo("Hello!"));
+        assertThat(hedgePolicy.getHedgesFired(), is(0L));
+    }
+
+    @Test
+    public void shouldFailHedgedPromiseWithoutRetryingOnceNoAttemptIsLeftRunning() {
+        AtomicInteger attempts = new AtomicInteger();
+        HedgePolicy hedgePolicy = HedgePolicy.fixed(Duration.ofSeconds(1), 3);
+
+        Promise<String> promise = Promise.hedged(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException();
+        }, hedgePolicy, TestExecutors.sameThreadExecutor());
+
+        try {
+            promise.resolve(1, TimeUnit.SECONDS);
+            fail("Should have thrown FailedPromiseException");
+        } catch (FailedPromiseException e) {
+            assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+            assertThat(attempts.get(), is(1));
+            assertThat(hedgePolicy.getHedgesFired(), is(0L));
+        }
+    }
+
+    @Test
+    public void shouldFailOverToAlternateSupplierWhenHedgedSupplierReturnsNull() {
+        Promise<String> promise = Promise.<String>hedged(() -> null, HedgePolicy.fixed(Duration.ofSeconds(1), 1),
+                TestExecutors.sameThreadExecutor())
+                .or((ignored) -> "Recovered");
+
+        assertThat(promise, resolvesTo("Recovered"));
+    }
+
+    @Test
+    public void shouldFailHedgedPromiseWhenExecutorRefusesHedgeAndRunningAttemptFails() {
+        CountDownLatch hedgeRefusedLatch = new CountDownLatch(1);
+        ExecutorService executor = newCachedThreadPool();
+        AtomicInteger executions = new AtomicInteger();
+        Executor refusingHedgesExecutor = (task) -> {
+            if (executions.incrementAndGet() > 1) {
+                hedgeRefusedLatch.countDown();
+                throw new RejectedExecutionException();
+            }
+            executor.execute(task);
+        };
+
+        Promise<String> promise = Promise.hedged(() -> {
+            awaitUninterruptibly(hedgeRefusedLatch);
+            throw new IllegalArgumentException();
+        }, HedgePolicy.fixed(Duration.ofMillis(10), 2), refusingHedgesExecutor);
+
+        try {
+            promise.resolve(1, TimeUnit.SECONDS);
+            fail("Should have thrown FailedPromiseException");
+        } catch (FailedPromiseException e) {
+            // either the refused hedge or the running attempt may be the last to fail
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldResolveAllPromisesInOrder() {
+        ExecutorService executor = newCachedThreadPool();
+
+        List<Promise<Integer>> promises = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            promises.add(Promise.promise(() -> {
+                sleepUninterruptibly(10 - value);
+                return value;
+            }, executor));
+        }
+        promises.add(Promise.lazy(() -> 10, executor));
+
+        assertThat(Promise.resolveAll(promises, 1, TimeUnit.SECONDS), is(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10)));
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldPassRemainingTimeoutOnToOtherPromiseImplementationsWhenResolvingAll() {
+        TimeoutRecordingPromise<String> promise = new TimeoutRecordingPromise<>(
+                Promise.promise(() -> "Hello!", TestExecutors.sameThreadExecutor()));
+
+        assertThat(Promise.resolveAll(Collections.singletonList(promise), 10, TimeUnit.SECONDS),
+                is(Collections.singletonList("Hello!")));
+        assertThat(promise.timeoutMillis > TimeUnit.SECONDS.toMillis(9), is(true));
+    }
+
+    @Test
+    public void shouldRethrowExceptionThrownBySupplierWhenResolvingAllPromises() {
+        List<Promise<String>> promises = Arrays.asList(
+                Promise.promise(() -> "Hello!", TestExecutors.sameThreadExecutor()),
+                Promise.promise(buildThrowingSupplier(), TestExecutors.sameThreadExecutor())
+        );
+
+        try {
+            Promise.resolveAll(promises, 1, TimeUnit.SECONDS);
+            fail("Should have thrown FailedPromiseException");
+        } catch (FailedPromiseException e) {
+            assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+        }
+    }
+
+    @Test
+    public void shouldRethrowExceptionThrownBySupplierWhileResolvingWithoutWaitingForTimeout() {
+        Promise<String> promise = Promise.promise(() -> {
+            sleepUninterruptibly(50);
+            throw new IllegalArgumentException();
+        }, newSingleThreadExecutor());
+
+        long startTime = System.nanoTime();
+        try {
+            promise.resolve(5, TimeUnit.SECONDS);
+            fail("Should have thrown FailedPromiseException");
+        } catch (FailedPromiseException e) {
+            assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+            assertThat(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5), is(true));
+        }
+    }
+
     @Test
     public void shouldBeAbleToUseActualThreads() {
         assertThat(Promise.promise(() -> "Hello!", newSingleThreadExecutor()), resolvesTo("Hello!"));
@@ -181,6 +490,35 @@ public class PromiseTest {
         assertThat(chainedPromise, resolvesTo("HELLO!"));
     }
 
+    private void assertChainOfDepthResolvesWithinSingleStep(int depth) {
+        TestExecutors.SteppingExecutor steppingExecutor = TestExecutors.steppingExecutor();
+
+        Promise<Integer> promise = Promise.promise(() -> 0, steppingExecutor);
+        for (int i = 0; i < depth; i++) {
+            promise = promise.then((value) -> value + 1);
+        }
+
+        steppingExecutor.step();
+
+        assertThat(promise.maybeResolve(), is(optionalOf(depth)));
+    }
+
+    private static void sleepUninterruptibly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private Supplier<String> buildThrowingSupplier() {
         return () -> {
             throw new IllegalArgumentException();
@@ -308,4 +646,45 @@ public class PromiseTest {
         }
     }
 
-}
\ No newline at end of file
+    private static class TimeoutRecordingPromise<T> implements Promise<T> {
+
+        private final Promise<T> delegate;
+        private volatile long timeoutMillis = -1;
+
+        private TimeoutRecordingPromise(Promise<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T resolve(int timeout, TimeUnit timeUnit) {
+            timeoutMillis = timeUnit.toMillis(timeout);
+            return delegate.resolve(timeout, timeUnit);
+        }
+
+        @Override
+        public Optional<T> maybeResolve() {
+            return delegate.maybeResolve();
+        }
+
+        @Override
+        public void consume(Consumer<PromiseResult<T>> promiseConsumer) {
+            delegate.consume(promiseConsumer);
+        }
+
+        @Override
+        public <R> Promise<R> then(Function<T, R> mutatorFunction) {
+            return delegate.then(mutatorFunction);
+        }
+
+        @Override
+        public Promise<T> or(Function<Exception, T> alternateSupplier) {
+            return delegate.or(alternateSupplier);
+        }
+
+        @Override
+        public <R> Promise<R> combine(Supplier<T> additionalSupplier, BiFunction<T, T, R> combiner) {
+            return delegate.combine(additionalSupplier, combiner);
+        }
+    }
+
+}
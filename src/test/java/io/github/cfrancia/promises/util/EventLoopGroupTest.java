@@ -0,0 +1,85 @@
+package io.github.cfrancia.promises.util;
+
+import io.github.cfrancia.promises.Promise;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class EventLoopGroupTest {
+
+    private final EventLoopGroup eventLoopGroup = new EventLoopGroup(4);
+
+    @After
+    public void shutdownEventLoopGroup() {
+        eventLoopGroup.shutdown();
+    }
+
+    @Test
+    public void shouldRunSubmittedTasks() throws InterruptedException {
+        CountDownLatch tasksRun = new CountDownLatch(1000);
+
+        for (int i = 0; i < 1000; i++) {
+            eventLoopGroup.execute(tasksRun::countDown);
+        }
+
+        assertTrue(tasksRun.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldRunChainedStagesOnSameLoopAsPromise() {
+        Promise<Thread> promise = Promise.promise(Thread::currentThread, eventLoopGroup);
+        Thread promiseThread = promise.resolve(1, TimeUnit.SECONDS);
+
+        // chained after resolution from the test thread, so the stage cannot simply have been fused into the first task
+        for (int i = 0; i < 16; i++) {
+            Thread stageThread = promise.then((ignored) -> Thread.currentThread()).resolve(1, TimeUnit.SECONDS);
+            assertThat(stageThread, is(sameInstance(promiseThread)));
+
+            promise = Promise.promise(Thread::currentThread, eventLoopGroup);
+            promiseThread = promise.resolve(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void shouldKeepPromisesCreatedOnLoopOnThatLoop() {
+        AtomicReference<Thread> creatingThread = new AtomicReference<>();
+
+        Promise<Thread> nestedPromise = Promise.promise(() -> {
+            creatingThread.set(Thread.currentThread());
+            return Promise.promise(Thread::currentThread, eventLoopGroup);
+        }, eventLoopGroup).resolve(1, TimeUnit.SECONDS);
+
+        assertThat(nestedPromise.resolve(1, TimeUnit.SECONDS), is(sameInstance(creatingThread.get())));
+    }
+
+    @Test
+    public void shouldRejectBlockingResolveOfPromiseOnOwnLoop() {
+        String outcome = Promise.promise(() -> {
+            try {
+                Promise.promise(() -> "Hello!", eventLoopGroup).resolve(1, TimeUnit.SECONDS);
+                return "resolved";
+            } catch (IllegalStateException e) {
+                return "rejected";
+            }
+        }, eventLoopGroup).resolve(5, TimeUnit.SECONDS);
+
+        assertThat(outcome, is("rejected"));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void shouldRejectTasksOnceShutDown() {
+        eventLoopGroup.shutdown();
+        eventLoopGroup.execute(() -> {
+        });
+    }
+
+}
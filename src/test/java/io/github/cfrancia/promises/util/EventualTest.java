@@ -0,0 +1,102 @@
+package io.github.cfrancia.promises.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class EventualTest {
+
+    @Test
+    public void shouldReturnItemPlacedWhileWaiting() throws InterruptedException {
+        Eventual<String> eventual = new Eventual<>();
+
+        placeLater(eventual, "Hello!", 50);
+
+        assertThat(eventual.view(1, TimeUnit.SECONDS), is("Hello!"));
+    }
+
+    @Test
+    public void shouldKeepWaitingUntilTimeoutDespiteSpuriousWakeups() throws InterruptedException {
+        Eventual<String> eventual = new Eventual<>();
+        Thread waitingThread = Thread.currentThread();
+
+        Thread wakingThread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                LockSupport.unpark(waitingThread);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+        });
+        wakingThread.start();
+
+        long startTime = System.nanoTime();
+        try {
+            assertThat(eventual.view(200, TimeUnit.MILLISECONDS), is(nullValue()));
+        } finally {
+            wakingThread.interrupt();
+        }
+
+        assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void shouldStopWaitingOnceAbandoned() throws InterruptedException {
+        Eventual<String> eventual = new Eventual<>();
+
+        new Thread(() -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            eventual.abandon();
+        }).start();
+
+        long startTime = System.nanoTime();
+        assertThat(eventual.view(5, TimeUnit.SECONDS), is(nullValue()));
+        assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5));
+        assertTrue(eventual.isSettled());
+    }
+
+    @Test
+    public void shouldAwaitAllEventualsWithSingleWait() throws InterruptedException {
+        Eventual<String> first = new Eventual<>();
+        Eventual<String> second = new Eventual<>();
+        Eventual<String> third = new Eventual<>();
+        first.place("Already here");
+
+        placeLater(second, "Soon", 20);
+        placeLater(third, "Later", 60);
+
+        assertTrue(Eventual.awaitAll(Arrays.asList(first, second, third), 1, TimeUnit.SECONDS));
+        assertThat(third.view(), is("Later"));
+    }
+
+    @Test
+    public void shouldStopAwaitingAllEventualsOnceTimeoutElapses() throws InterruptedException {
+        Eventual<String> first = new Eventual<>();
+        Eventual<String> second = new Eventual<>();
+        first.place("Already here");
+
+        assertFalse(Eventual.awaitAll(Arrays.asList(first, second), 50, TimeUnit.MILLISECONDS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowSecondItemToBePlaced() {
+        Eventual<String> eventual = new Eventual<>();
+
+        eventual.place("Hello!");
+        eventual.place("Goodbye!");
+    }
+
+    private static <T> void placeLater(Eventual<T> eventual, T item, long delayMillis) {
+        new Thread(() -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(delayMillis));
+            eventual.place(item);
+        }).start();
+    }
+
+}